@@ -58,10 +58,10 @@ public class AVLTreeMap<K, V> extends TreeMap<K, V> {
     }
 
     /**
-     * Returns the height of the given tree position.
+     * Returns the height of the given tree position (0 for a missing child).
      */
     protected int height(Position<Entry<K, V>> p) {
-        return this.tree.getAux(p);
+        return (p == null) ? 0 : this.tree.getAux(p);
     }
 
     /**
@@ -134,9 +134,9 @@ public class AVLTreeMap<K, V> extends TreeMap<K, V> {
      * Overrides the TreeMap rebalancing hook that is called after a deletion.
      */
     @Override
-    protected void rebalanceDelete(Position<Entry<K, V>> p) {
-        if (!isRoot(p)) {
-            rebalance(parent(p));
+    protected void rebalanceDelete(Position<Entry<K, V>> parent, Position<Entry<K, V>> p) {
+        if (parent != null) {
+            rebalance(parent);
         }
     }
 
@@ -7,7 +7,7 @@ import java.util.ArrayList;
  * <p>
  * The base class provides the following means of support: 1) Support for
  * calculating hash values with MAD compression 2) Support for resizing table
- * when load factor reaches 1/2
+ * when load factor reaches 1/2 (or the limit returned by maxLoad())
  * <p>
  * Subclass is responsible for providing abstract methods: createTable(),
  * bucketGet(h,k), bucketPut(h,k,v), bucketRemove(h,k), and entrySet() and for
@@ -20,6 +20,7 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
     protected int capacity; // length of the table
     private int prime; // prime factor
     private long scale, shift; // the shift and scaling factors
+    private HashMapStats stats; // null unless statistics have been enabled
 
     /**
      * Creates a hash table with the given capacity and prime factor.
@@ -104,27 +105,212 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
 
         V answer = bucketPut(hashValue(key), key, value);
 
-        if (n > capacity / 2) { 
+        if (n + tombstones() > capacity * maxLoad()) {
 
-            resize(2 * capacity - 1); 
+            // if removed slots make up much of the load, rebuilding at the same
+            // capacity clears them and leaves room for as many insertions again
+            grow((n > capacity * maxLoad() / 2) ? 2 * capacity - 1 : capacity);
         }
 
         return answer;
     }
-    // private utilities
+
+    /**
+     * Copies every entry of m into this map. The table is grown at most once,
+     * before the first insertion, so no intermediate resizes occur.
+     *
+     * @param m the map whose entries are to be added
+     */
+    public void putAll(Map<K, V> m) {
+
+        ensureCapacity(n + m.size());
+
+        for (Entry<K, V> entry : m.entrySet()) {
+
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Adds every entry of the given collection to this map. If the number of
+     * entries is known in advance (the iterable is a java.util.Collection) the
+     * table is grown once beforehand; otherwise it grows as usual.
+     *
+     * @param entries the entries to be added
+     */
+    public void putAll(Iterable<Entry<K, V>> entries) {
+
+        if (entries instanceof java.util.Collection) {
+
+            ensureCapacity(n + ((java.util.Collection<?>) entries).size());
+        }
+
+        for (Entry<K, V> entry : entries) {
+
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Grows the table, if necessary, so that it can hold the given number of
+     * entries without any further resize.
+     *
+     * @param expected the number of entries the table should accommodate
+     */
+    public void ensureCapacity(int expected) {
+
+        if (expected > capacity * maxLoad()) {
+
+            grow((int) Math.ceil(expected / maxLoad()) | 1);
+        }
+    }
+
+    /**
+     * Starts recording statistics about this table. Until this is called the
+     * only cost of the statistics support is a null check per resize.
+     */
+    public void enableStats() {
+
+        if (stats == null) {
+
+            stats = new HashMapStats();
+        }
+    }
+
+    /**
+     * Returns a snapshot of statistics about the current shape of the table, or
+     * null if statistics have not been enabled. The snapshot is a new object that
+     * later operations on the map do not change. The histogram is recomputed by
+     * scanning the table, so this takes time proportional to the capacity.
+     *
+     * @return the table's statistics (or null, if not enabled)
+     */
+    public HashMapStats getStats() {
+
+        if (stats == null) {
+
+            return null;
+        }
+
+        HashMapStats snapshot = new HashMapStats(stats);
+        snapshot.beginSnapshot(n, capacity);
+        collectStats(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Records the bucket lengths or probe lengths of the table into stats. This
+     * version of the method records nothing, but it can be overridden by
+     * subclasses.
+     *
+     * @param stats the statistics to record into
+     */
+    protected void collectStats(HashMapStats stats) {
+    }
+
+    /**
+     * Returns the load factor above which the table is doubled in size. Tables
+     * whose collision scheme copes with fuller buckets may override this.
+     *
+     * @return the maximum ratio of entries to capacity before resizing
+     */
+    protected double maxLoad() {
+
+        return 0.5;
+    }
+
+    /**
+     * Returns the number of slots that hold no entry but still lengthen searches,
+     * such as the markers left by removals in an open-addressing table. They
+     * count towards the load, and a table whose load is mostly tombstones is
+     * rebuilt at its current capacity rather than grown. This version of the
+     * method returns 0, but it can be overridden by subclasses.
+     *
+     * @return the number of tombstone slots in the table
+     */
+    protected int tombstones() {
+
+        return 0;
+    }
+    // protected utilities
 
     /**
      * Hash function applying MAD method to default hash code.
      */
-    private int hashValue(K key) {
+    protected int hashValue(K key) {
+
+        return hashValue(key, capacity);
+    }
+
+    /**
+     * Hash function applying MAD method to default hash code, compressed to a
+     * table of the given length rather than the current capacity.
+     */
+    protected int hashValue(K key, int length) {
 
-        return (int) ((Math.abs(key.hashCode() * scale + shift) % prime) % capacity);
+        return (int) ((Math.abs(key.hashCode() * scale + shift) % prime) % length);
+    }
+
+    /**
+     * Secondary hash function for schemes that give every key a second candidate
+     * bucket. It applies MAD compression with a scale of scale^2 mod prime and a
+     * shift of (shift + scale) mod prime, so it is derived from, and changes with,
+     * the primary hash parameters.
+     */
+    protected int altHashValue(K key) {
+
+        long altScale = (scale * scale) % prime; // non-zero, as prime is prime
+        long altShift = (shift + scale) % prime;
+        return (int) ((Math.abs(key.hashCode() * altScale + altShift) % prime) % capacity);
+    }
+
+    /**
+     * Draws new random scale and shift factors. Every key may now hash to a
+     * different bucket, so the caller must rebuild the table.
+     */
+    protected void reseed() {
+
+        Random rand = new Random();
+        scale = rand.nextInt(prime - 1) + 1;
+        shift = rand.nextInt(prime);
+    }
+
+    /**
+     * Resizes the table, timing the resize if statistics are enabled.
+     */
+    private void grow(int newCap) {
+
+        if (stats == null) {
+
+            resize(newCap);
+        } else {
+
+            long start = System.nanoTime();
+            resize(newCap);
+            recordResize(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Counts a rebuild of the table in the statistics, if they are enabled.
+     * Subclasses that rebuild the table other than through resize(), for example
+     * after drawing new hash parameters, call this so that the rebuild is
+     * reported like a resize.
+     *
+     * @param nanos the time the rebuild took, in nanoseconds
+     */
+    protected void recordResize(long nanos) {
+
+        if (stats != null) {
+
+            stats.recordResize(nanos);
+        }
     }
 
     /**
      * Updates the size of the hash table and rehashes all entries.
      */
-    private void resize(int newCap) {
+    protected void resize(int newCap) {
 
         capacity = newCap;
         ArrayList<Entry<K, V>> temp = new ArrayList<>(n);
@@ -0,0 +1,843 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of a sorted map using a B+ tree.
+ * <p>
+ * Each node holds up to order keys in a sorted array, so a lookup binary
+ * searches a few contiguous arrays instead of following one pointer per
+ * comparison as a binary search tree does: with the default order of 64 a
+ * tree of a million entries is only four levels deep. The entries are kept
+ * in the leaves, which are linked to their neighbours, so a range scan finds
+ * its first entry in O(log n) time and then reads the leaves in order.
+ * <p>
+ * Inner nodes hold separator keys: every key in the subtree left of
+ * keys[i] is less than keys[i], and every key in the subtree to its right is
+ * at least keys[i]. Insertion splits full nodes on the way back up, and
+ * removal borrows from or merges with a sibling when a node falls below half
+ * full, so every node but the root is at least half full.
+ */
+public class BPlusTreeMap<K, V> extends AbstractSortedMap<K, V> {
+
+    /** Default maximum number of children of an inner node. */
+    public static final int DEFAULT_ORDER = 64;
+
+    // ---------------- nested Node classes ----------------
+    /** A node with size keys in keys[0..size); one spare slot allows overflow before a split. */
+    private abstract static class Node {
+        Object[] keys;
+        int size;
+    }
+
+    /** A leaf holds the values alongside their keys and links to its neighbours. */
+    private static final class Leaf extends Node {
+        Object[] values;
+        Leaf previous, next;
+
+        Leaf(int capacity) {
+            keys = new Object[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    /** An inner node with size keys has size + 1 children. */
+    private static final class Inner extends Node {
+        Node[] children;
+
+        Inner(int capacity) {
+            keys = new Object[capacity];
+            children = new Node[capacity + 1];
+        }
+    } // ----------- end of nested Node classes -----------
+
+    private final int order; // maximum children of an inner node, and entries of a leaf
+    private final int minLeaf; // minimum entries of a leaf other than the root
+    private final int minInner; // minimum keys of an inner node other than the root
+    private final Leaf first; // leftmost leaf; splits and merges always keep it
+    private Node root;
+    private int n = 0; // number of entries
+
+    // set by insert when the node it was called on has split
+    private Node split; // the new right sibling
+    private Object splitKey; // the separator to add to the parent
+
+    /** Creates an empty map of the default order using the natural ordering of keys. */
+    public BPlusTreeMap() {
+
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * Creates an empty map of the given order using the natural ordering of
+     * keys. Orders from 32 to 256 suit most key types.
+     *
+     * @param order maximum number of children of an inner node
+     * @throws IllegalArgumentException if order is less than 3
+     */
+    public BPlusTreeMap(int order) throws IllegalArgumentException {
+
+        this(order, new DefaultComparator<K>());
+    }
+
+    /**
+     * Creates an empty map of the given order using the given comparator to order
+     * keys.
+     *
+     * @param order maximum number of children of an inner node
+     * @param comp  comparator defining the order of keys in the map
+     * @throws IllegalArgumentException if order is less than 3
+     */
+    public BPlusTreeMap(int order, Comparator<K> comp) throws IllegalArgumentException {
+
+        super(comp);
+
+        if (order < 3) {
+
+            throw new IllegalArgumentException("Order must be at least 3");
+        }
+
+        this.order = order;
+        minLeaf = order / 2;
+        minInner = (order - 1) / 2;
+        first = new Leaf(order + 1);
+        root = first;
+    }
+
+    @SuppressWarnings({ "unchecked" })
+    private K key(Node node, int i) {
+
+        return (K) node.keys[i];
+    }
+
+    @SuppressWarnings({ "unchecked" })
+    private V value(Leaf leaf, int i) {
+
+        return (V) leaf.values[i];
+    }
+
+    /**
+     * Returns the index of key in node, or -(insertion point) - 1 if it is absent.
+     */
+    private int search(Node node, K key) {
+
+        int low = 0;
+        int high = node.size - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+            int compare = compare(key, key(node, mid));
+
+            if (compare > 0) {
+
+                low = mid + 1;
+            } else if (compare < 0) {
+
+                high = mid - 1;
+            } else {
+
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /** Returns the index of the child of an inner node whose subtree would hold key. */
+    private int childIndex(Inner inner, K key) {
+
+        int i = search(inner, key);
+        return (i >= 0) ? i + 1 : -(i + 1);
+    }
+
+    /** Returns the leaf whose range of keys includes key. */
+    private Leaf findLeaf(K key) {
+
+        Node node = root;
+
+        while (node instanceof Inner) {
+
+            Inner inner = (Inner) node;
+            node = inner.children[childIndex(inner, key)];
+        }
+
+        return (Leaf) node;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+
+        return n;
+    }
+
+    /**
+     * Returns the number of levels of the tree, 1 when the root is a leaf.
+     *
+     * @return height of the tree
+     */
+    public int height() {
+
+        int height = 1;
+
+        for (Node node = root; node instanceof Inner; node = ((Inner) node).children[0]) {
+
+            height++;
+        }
+
+        return height;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) {
+
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return (i >= 0) ? value(leaf, i) : null;
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @Override
+    public V put(K key, V value) {
+
+        V answer = insert(root, key, value);
+
+        if (split != null) { // the root split, so the tree grows a level
+
+            Inner newRoot = new Inner(order);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = split;
+            newRoot.size = 1;
+            root = newRoot;
+            split = null;
+            splitKey = null;
+        }
+
+        return answer;
+    }
+
+    /**
+     * Inserts the entry into the subtree of node, returning any value it replaced.
+     * If node overflows it is split, and the new sibling and its separator are
+     * left in split and splitKey for the caller.
+     */
+    private V insert(Node node, K key, V value) {
+
+        if (node instanceof Leaf) {
+
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf, key);
+
+            if (i >= 0) {
+
+                V old = value(leaf, i);
+                leaf.values[i] = value;
+                return old;
+            }
+
+            i = -(i + 1);
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.size - i);
+            System.arraycopy(leaf.values, i, leaf.values, i + 1, leaf.size - i);
+            leaf.keys[i] = key;
+            leaf.values[i] = value;
+            leaf.size++;
+            n++;
+
+            if (leaf.size > order) {
+
+                splitLeaf(leaf);
+            }
+
+            return null;
+        }
+
+        Inner inner = (Inner) node;
+        int c = childIndex(inner, key);
+        V answer = insert(inner.children[c], key, value);
+
+        if (split != null) { // the child split; add its new sibling to the right of it
+
+            System.arraycopy(inner.keys, c, inner.keys, c + 1, inner.size - c);
+            System.arraycopy(inner.children, c + 1, inner.children, c + 2, inner.size - c);
+            inner.keys[c] = splitKey;
+            inner.children[c + 1] = split;
+            inner.size++;
+            split = null;
+            splitKey = null;
+
+            if (inner.size > order - 1) {
+
+                splitInner(inner);
+            }
+        }
+
+        return answer;
+    }
+
+    /** Moves the upper half of an overfull leaf into a new leaf linked after it. */
+    private void splitLeaf(Leaf leaf) {
+
+        int keep = (leaf.size + 1) / 2;
+        Leaf right = new Leaf(order + 1);
+        right.size = leaf.size - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.size);
+        System.arraycopy(leaf.values, keep, right.values, 0, right.size);
+        clear(leaf, keep, leaf.size);
+        leaf.size = keep;
+
+        right.next = leaf.next;
+        right.previous = leaf;
+
+        if (leaf.next != null) {
+
+            leaf.next.previous = right;
+        }
+
+        leaf.next = right;
+        split = right;
+        splitKey = right.keys[0];
+    }
+
+    /**
+     * Moves the keys and children above the middle key of an overfull inner node
+     * into a new node; the middle key moves up to the parent.
+     */
+    private void splitInner(Inner inner) {
+
+        int mid = inner.size / 2;
+        Inner right = new Inner(order);
+        right.size = inner.size - mid - 1;
+        System.arraycopy(inner.keys, mid + 1, right.keys, 0, right.size);
+        System.arraycopy(inner.children, mid + 1, right.children, 0, right.size + 1);
+        split = right;
+        splitKey = inner.keys[mid];
+        clear(inner, mid, inner.size);
+        inner.size = mid;
+    }
+
+    /** Clears the slots from index from to index to of a node, so they hold no garbage. */
+    private static void clear(Node node, int from, int to) {
+
+        for (int i = from; i < to; i++) {
+
+            node.keys[i] = null;
+
+            if (node instanceof Leaf) {
+
+                ((Leaf) node).values[i] = null;
+            } else {
+
+                ((Inner) node).children[i + 1] = null;
+            }
+        }
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(K key) {
+
+        V answer = delete(root, key);
+
+        if (root instanceof Inner && root.size == 0) { // the root lost its last separator
+
+            root = ((Inner) root).children[0];
+        }
+
+        return answer;
+    }
+
+    /**
+     * Removes key from the subtree of node and restores the minimum size of any
+     * child that fell below it.
+     */
+    private V delete(Node node, K key) {
+
+        if (node instanceof Leaf) {
+
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf, key);
+
+            if (i < 0) {
+
+                return null;
+            }
+
+            V old = value(leaf, i);
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.size - i - 1);
+            System.arraycopy(leaf.values, i + 1, leaf.values, i, leaf.size - i - 1);
+            leaf.size--;
+            leaf.keys[leaf.size] = null;
+            leaf.values[leaf.size] = null;
+            n--;
+            return old;
+        }
+
+        Inner inner = (Inner) node;
+        int c = childIndex(inner, key);
+        Node child = inner.children[c];
+        V answer = delete(child, key);
+
+        if (child.size < ((child instanceof Leaf) ? minLeaf : minInner)) {
+
+            rebalance(inner, c);
+        }
+
+        return answer;
+    }
+
+    /**
+     * Restores the minimum size of child c of parent by borrowing an entry from a
+     * sibling that can spare one, or else by merging with a sibling.
+     */
+    private void rebalance(Inner parent, int c) {
+
+        Node child = parent.children[c];
+        Node left = (c > 0) ? parent.children[c - 1] : null;
+        Node right = (c < parent.size) ? parent.children[c + 1] : null;
+        int min = (child instanceof Leaf) ? minLeaf : minInner;
+
+        if (left != null && left.size > min) {
+
+            borrowFromLeft(parent, c);
+        } else if (right != null && right.size > min) {
+
+            borrowFromRight(parent, c);
+        } else if (left != null) {
+
+            merge(parent, c - 1);
+        } else {
+
+            merge(parent, c);
+        }
+    }
+
+    /** Moves the last entry of child c - 1 to the front of child c. */
+    private void borrowFromLeft(Inner parent, int c) {
+
+        Node child = parent.children[c];
+        Node left = parent.children[c - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.size);
+
+        if (child instanceof Leaf) {
+
+            Leaf leaf = (Leaf) child;
+            Leaf from = (Leaf) left;
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.size);
+            leaf.keys[0] = from.keys[from.size - 1];
+            leaf.values[0] = from.values[from.size - 1];
+            from.values[from.size - 1] = null;
+            parent.keys[c - 1] = leaf.keys[0];
+        } else {
+
+            // the separator comes down and the last key of the sibling goes up
+            Inner inner = (Inner) child;
+            Inner from = (Inner) left;
+            System.arraycopy(inner.children, 0, inner.children, 1, inner.size + 1);
+            inner.keys[0] = parent.keys[c - 1];
+            inner.children[0] = from.children[from.size];
+            from.children[from.size] = null;
+            parent.keys[c - 1] = from.keys[from.size - 1];
+        }
+
+        left.keys[left.size - 1] = null;
+        left.size--;
+        child.size++;
+    }
+
+    /** Moves the first entry of child c + 1 to the end of child c. */
+    private void borrowFromRight(Inner parent, int c) {
+
+        Node child = parent.children[c];
+        Node right = parent.children[c + 1];
+
+        if (child instanceof Leaf) {
+
+            Leaf leaf = (Leaf) child;
+            Leaf from = (Leaf) right;
+            leaf.keys[leaf.size] = from.keys[0];
+            leaf.values[leaf.size] = from.values[0];
+            System.arraycopy(from.values, 1, from.values, 0, from.size - 1);
+            from.values[from.size - 1] = null;
+            System.arraycopy(from.keys, 1, from.keys, 0, from.size - 1);
+            parent.keys[c] = from.keys[0];
+        } else {
+
+            // the separator comes down and the first key of the sibling goes up
+            Inner inner = (Inner) child;
+            Inner from = (Inner) right;
+            inner.keys[inner.size] = parent.keys[c];
+            inner.children[inner.size + 1] = from.children[0];
+            parent.keys[c] = from.keys[0];
+            System.arraycopy(from.keys, 1, from.keys, 0, from.size - 1);
+            System.arraycopy(from.children, 1, from.children, 0, from.size);
+            from.children[from.size] = null;
+        }
+
+        right.keys[right.size - 1] = null;
+        right.size--;
+        child.size++;
+    }
+
+    /**
+     * Merges child i + 1 of parent into child i and removes separator i from the
+     * parent.
+     */
+    private void merge(Inner parent, int i) {
+
+        Node left = parent.children[i];
+        Node right = parent.children[i + 1];
+
+        if (left instanceof Leaf) {
+
+            Leaf leaf = (Leaf) left;
+            Leaf from = (Leaf) right;
+            System.arraycopy(from.keys, 0, leaf.keys, leaf.size, from.size);
+            System.arraycopy(from.values, 0, leaf.values, leaf.size, from.size);
+            leaf.size += from.size;
+            leaf.next = from.next;
+
+            if (from.next != null) {
+
+                from.next.previous = leaf;
+            }
+        } else {
+
+            // the separator comes down between the two halves
+            Inner inner = (Inner) left;
+            Inner from = (Inner) right;
+            inner.keys[inner.size] = parent.keys[i];
+            System.arraycopy(from.keys, 0, inner.keys, inner.size + 1, from.size);
+            System.arraycopy(from.children, 0, inner.children, inner.size + 1, from.size + 1);
+            inner.size += from.size + 1;
+        }
+
+        System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.size - i - 1);
+        System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.size - i - 1);
+        parent.size--;
+        parent.keys[parent.size] = null;
+        parent.children[parent.size + 1] = null;
+    }
+
+    /** Returns a snapshot of the entry at index i of leaf. */
+    private Entry<K, V> entry(Leaf leaf, int i) {
+
+        return new MapEntry<>(key(leaf, i), value(leaf, i));
+    }
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> firstEntry() {
+
+        return (n == 0) ? null : entry(first, 0);
+    }
+
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> lastEntry() {
+
+        if (n == 0) {
+
+            return null;
+        }
+
+        Node node = root;
+
+        while (node instanceof Inner) {
+
+            node = ((Inner) node).children[node.size];
+        }
+
+        return entry((Leaf) node, node.size - 1);
+    }
+
+    /**
+     * Returns an iterator positioned at the least key greater than key, or equal
+     * to it if inclusive is true, stopping before toKey (null for no bound).
+     */
+    private EntryIterator iterator(K key, boolean inclusive, K toKey) {
+
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+
+        if (i < 0) {
+
+            i = -(i + 1);
+        } else if (!inclusive) {
+
+            i++;
+        }
+
+        return new EntryIterator(leaf, i, toKey);
+    }
+
+    /**
+     * Returns the entry with the greatest key less than key, or equal to it if
+     * inclusive is true (or null if no such entry exists).
+     */
+    private Entry<K, V> floor(K key, boolean inclusive) {
+
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+
+        if (i >= 0 && inclusive) {
+
+            return entry(leaf, i);
+        }
+
+        i = ((i >= 0) ? i : -(i + 1)) - 1;
+
+        if (i < 0) { // everything in this leaf is greater; the floor ends the previous one
+
+            leaf = leaf.previous;
+
+            if (leaf == null) {
+
+                return null;
+            }
+
+            i = leaf.size - 1;
+        }
+
+        return entry(leaf, i);
+    }
+
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        EntryIterator iterator = iterator(key, true, null);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        return floor(key, true);
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        return floor(key, false);
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        EntryIterator iterator = iterator(key, false, null);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    /**
+     * Reads the entries in key order from a position in a leaf onwards, following
+     * the leaf links, and stops before the first key that is not less than toKey
+     * (if any). The map should not be modified during the iteration.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Leaf leaf; // leaf of the next entry, or null at the end
+        private int index; // index of the next entry in leaf
+        private final K toKey; // exclusive upper bound, or null for none
+
+        EntryIterator(Leaf leaf, int index, K toKey) {
+
+            this.leaf = leaf;
+            this.index = index;
+            this.toKey = toKey;
+            skipExhaustedLeaf();
+        }
+
+        /** Moves on to the next leaf once every entry of this one has been read. */
+        private void skipExhaustedLeaf() {
+
+            if (leaf != null && index >= leaf.size) {
+
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        public boolean hasNext() {
+
+            return leaf != null && (toKey == null || compare(key(leaf, index), toKey) < 0);
+        }
+
+        public Entry<K, V> next() {
+
+            if (!hasNext()) {
+
+                throw new NoSuchElementException("No more entries");
+            }
+
+            Entry<K, V> answer = entry(leaf, index++);
+            skipExhaustedLeaf();
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    // ---------------- nested EntryIterable class ----------------
+    /**
+     * The entries from fromKey inclusive to toKey exclusive; a null bound leaves
+     * the range open on that side.
+     */
+    private class EntryIterable implements Iterable<Entry<K, V>> {
+        private final K fromKey;
+        private final K toKey;
+
+        EntryIterable(K fromKey, K toKey) {
+
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        public Iterator<Entry<K, V>> iterator() {
+
+            return (fromKey == null) ? new EntryIterator(first, 0, toKey)
+                    : BPlusTreeMap.this.iterator(fromKey, true, toKey);
+        }
+
+        public String toString() {
+
+            StringBuilder sb = new StringBuilder("[");
+
+            for (Entry<K, V> entry : this) {
+
+                sb.append(sb.length() > 1 ? ", " : "").append(entry);
+            }
+
+            return sb.append("]").toString();
+        }
+    } // ----------- end of nested EntryIterable class -----------
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map, in key
+     * order, read from the leaves as the iteration proceeds.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+
+        return new EntryIterable(null, null);
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive. The first
+     * entry is found in O(log n) time when iteration starts and the rest are read
+     * from the linked leaves.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+
+        checkKey(fromKey);
+        checkKey(toKey);
+        return new EntryIterable(fromKey, toKey);
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+    public static void main(String[] args) {
+
+        BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+
+        for (int i = 0; i < 20; i++) {
+
+            map.put((i * 7) % 20, Integer.toString(i));
+        }
+
+        System.out.println("map: " + map);
+        System.out.println("height: " + map.height());
+        System.out.println("subMap(5, 12): " + map.subMap(5, 12));
+        System.out.println("floorEntry(-1): " + map.floorEntry(-1));
+
+        for (int i = 0; i < 20; i += 2) {
+
+            map.remove(i);
+        }
+
+        System.out.println("map: " + map);
+        System.out.println("height: " + map.height());
+    }
+
+}
@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BPlusTreeMapTest {
+
+	@Test
+	void testPutGet() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			assertEquals(null, map.put(i, Integer.toString(i)));
+		}
+		assertEquals(12, map.size());
+		assertEquals("15", map.get(15));
+		assertEquals(null, map.get(-1));
+		assertEquals("15", map.put(15, "fifteen"));
+		assertEquals("fifteen", map.get(15));
+		assertEquals(12, map.size());
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.toString());
+	}
+
+	@Test
+	void testOrder() {
+		assertThrows(IllegalArgumentException.class, () -> new BPlusTreeMap<Integer, String>(2));
+		BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(32);
+		for (int i = 0; i < 100000; i++) {
+			map.put(i, i);
+		}
+		// sequential inserts leave nodes half full: 6250 leaves under 368, 22 and 1 inner nodes
+		assertEquals(4, map.height());
+	}
+
+	@Test
+	void testNavigation() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+		assertEquals(null, map.firstEntry());
+		assertEquals(null, map.lastEntry());
+		assertEquals(null, map.ceilingEntry(1));
+
+		for (int i = 0; i < 100; i += 10) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(0, map.firstEntry().getKey());
+		assertEquals(90, map.lastEntry().getKey());
+		assertEquals(20, map.ceilingEntry(20).getKey());
+		assertEquals(30, map.ceilingEntry(21).getKey());
+		assertEquals(null, map.ceilingEntry(91));
+		assertEquals(20, map.floorEntry(20).getKey());
+		assertEquals(20, map.floorEntry(29).getKey());
+		assertEquals(null, map.floorEntry(-1));
+		assertEquals(10, map.lowerEntry(20).getKey());
+		assertEquals(null, map.lowerEntry(0));
+		assertEquals(30, map.higherEntry(20).getKey());
+		assertEquals(null, map.higherEntry(90));
+		assertEquals("[20, 30, 40]", map.subMap(20, 50).toString());
+		assertEquals("[20, 30, 40]", map.subMap(11, 41).toString());
+		assertEquals("[]", map.subMap(41, 49).toString());
+	}
+
+	@Test
+	void testRandomOperations() {
+		for (int order : new int[] { 3, 4, 5, 32 }) {
+			BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(order);
+			java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+			java.util.Random rnd = new java.util.Random(order);
+
+			for (int i = 0; i < 30000; ++i) {
+				int k = rnd.nextInt(2000);
+				if (rnd.nextInt(5) < 3) {
+					assertEquals(expected.put(k, i), map.put(k, i));
+				} else {
+					assertEquals(expected.remove(k), map.remove(k));
+				}
+				int probe = rnd.nextInt(2100) - 50;
+				assertEquals(expected.get(probe), map.get(probe));
+				assertEquals(expected.ceilingKey(probe), keyOf(map.ceilingEntry(probe)));
+				assertEquals(expected.floorKey(probe), keyOf(map.floorEntry(probe)));
+				assertEquals(expected.lowerKey(probe), keyOf(map.lowerEntry(probe)));
+				assertEquals(expected.higherKey(probe), keyOf(map.higherEntry(probe)));
+			}
+			assertEquals(expected.size(), map.size());
+			assertEquals(expected.keySet().toString(), map.keySet().toString());
+			assertEquals(expected.subMap(500, 700).keySet().toString(), keysOf(map.subMap(500, 700)));
+
+			for (int k = 0; k < 2000; k++) {
+				assertEquals(expected.remove(k), map.remove(k));
+			}
+			assertEquals(0, map.size());
+			assertEquals(1, map.height());
+			assertEquals("[]", map.toString());
+		}
+	}
+
+	private static String keysOf(Iterable<Entry<Integer, Integer>> entries) {
+		ArrayList<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> entry : entries) {
+			keys.add(entry.getKey());
+		}
+		return keys.toString();
+	}
+
+	private static Integer keyOf(Entry<Integer, Integer> entry) {
+		return (entry == null) ? null : entry.getKey();
+	}
+
+}
@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays a trace of key accesses against LRUCache and WTinyLFUCache and
+ * prints the hit rate of each at several cache sizes.
+ * <p>
+ * Every access is a get, and a miss is followed by a put of the same key, as a
+ * read-through cache would do. The trace is read from the file named by the
+ * first argument, one key per line; without an argument a synthetic trace is
+ * generated, in which requests for a Zipf-distributed set of popular keys are
+ * interrupted by long scans of keys that are never requested again.
+ */
+public class CacheBenchmark {
+
+    /**
+     * Generates a trace of the given length: bursts of Zipf-distributed requests
+     * over hotKeys keys, each followed by a scan of scanLength fresh keys.
+     *
+     * @param length     the number of requests
+     * @param hotKeys    the number of distinct popular keys
+     * @param burst      the number of popular requests between two scans
+     * @param scanLength the number of keys in each scan
+     * @param seed       the seed of the random generator
+     * @return the keys requested, in order
+     */
+    public static long[] scanPollutedTrace(int length, int hotKeys, int burst, int scanLength, long seed) {
+
+        Random random = new Random(seed);
+        double[] cumulative = new double[hotKeys]; // Zipf distribution with exponent 0.9
+        double total = 0;
+
+        for (int i = 0; i < hotKeys; i++) {
+
+            total += 1 / Math.pow(i + 1, 0.9);
+            cumulative[i] = total;
+        }
+
+        long[] trace = new long[length];
+        long nextScanKey = hotKeys;
+        int t = 0;
+
+        while (t < length) {
+
+            for (int i = 0; i < burst && t < length; i++) {
+
+                int pos = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                trace[t++] = (pos >= 0) ? pos : -(pos + 1);
+            }
+
+            for (int i = 0; i < scanLength && t < length; i++) {
+
+                trace[t++] = nextScanKey++;
+            }
+        }
+
+        return trace;
+    }
+
+    /**
+     * Replays the trace against the cache and returns its hit rate.
+     *
+     * @param cache the cache, initially empty
+     * @param trace the keys requested, in order
+     * @return the fraction of requests that hit
+     */
+    public static double replay(Map<Long, Long> cache, long[] trace) {
+
+        long hits = 0;
+
+        for (long key : trace) {
+
+            if (cache.get(key) != null) {
+
+                hits++;
+            } else {
+
+                cache.put(key, key);
+            }
+        }
+
+        return (double) hits / trace.length;
+    }
+
+    /** Reads a trace file holding one key per line; keys are hashed to longs. */
+    private static long[] readTrace(String path) throws IOException {
+
+        List<String> lines = Files.readAllLines(Paths.get(path));
+        ArrayList<Long> keys = new ArrayList<>(lines.size());
+
+        for (String line : lines) {
+
+            line = line.trim();
+
+            if (!line.isEmpty()) {
+
+                try {
+
+                    keys.add(Long.parseLong(line));
+                } catch (NumberFormatException e) {
+
+                    keys.add((long) line.hashCode());
+                }
+            }
+        }
+
+        long[] trace = new long[keys.size()];
+
+        for (int i = 0; i < trace.length; i++) {
+
+            trace[i] = keys.get(i);
+        }
+
+        return trace;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        long[] trace = (args.length > 0) ? readTrace(args[0]) : scanPollutedTrace(2000000, 5000, 3000, 1000, 42);
+        System.out.println("requests: " + trace.length);
+        System.out.println(String.format("%10s %10s %12s", "size", "LRU", "W-TinyLFU"));
+
+        for (int size : new int[] { 250, 500, 1000, 2000 }) {
+
+            double lru = replay(new LRUCache<>(size), trace);
+            double tinyLfu = replay(new WTinyLFUCache<>(size), trace);
+            System.out.println(String.format("%10d %9.2f%% %11.2f%%", size, 100 * lru, 100 * tinyLfu));
+        }
+    }
+
+}
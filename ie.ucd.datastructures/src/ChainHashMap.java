@@ -1,4 +1,6 @@
-import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 /*
  * Map implementation using hash table with separate chaining.
  */
@@ -6,6 +8,7 @@ public class ChainHashMap <K, V> extends AbstractHashMap<K, V> {
     
     // a fixed capacity array of UnsortedTableMap that serve as buckets
     private UnsortedTableMap<K, V>[] table; // initialized within createTable
+    private int modCount; // number of structural changes, for fail-fast iteration
     
     
     /**
@@ -35,6 +38,43 @@ public class ChainHashMap <K, V> extends AbstractHashMap<K, V> {
     }
     
     
+    /**
+     * Creates a hash table holding the given keys and values, sized so that no
+     * resize occurs while they are inserted.
+     *
+     * @param  keys                     the keys to insert
+     * @param  values                   the values, values[i] being associated with keys[i]
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public ChainHashMap (K[] keys, V[] values) throws IllegalArgumentException {
+        
+        super(Math.max(17, 2 * keys.length + 1));
+        
+        if (keys.length != values.length) {
+            
+            throw new IllegalArgumentException("Keys and values differ in length");
+        }
+        
+        for (int i = 0; i < keys.length; i++) {
+            
+            put(keys[i], values[i]);
+        }
+    }
+    
+    
+    /**
+     * Creates a hash table holding the given entries, sized once up front when
+     * their number is known.
+     *
+     * @param entries the entries to insert
+     */
+    public ChainHashMap (Iterable<Entry<K, V>> entries) {
+        
+        super();
+        putAll(entries);
+    }
+    
+    
     public static void main(String[] args) {
         
         // HashMap<Integer, String> m = new HashMap<Integer, String>();
@@ -63,6 +103,7 @@ public class ChainHashMap <K, V> extends AbstractHashMap<K, V> {
     protected void createTable() {
         
         table = (UnsortedTableMap<K, V>[]) new UnsortedTableMap[capacity];
+        modCount++;
     }
     
     
@@ -104,7 +145,13 @@ public class ChainHashMap <K, V> extends AbstractHashMap<K, V> {
         
         int previouSize = bucket.size();
         V previousValue = bucket.put(k, v);
-        n += (bucket.size() - previouSize);
+        
+        if (bucket.size() != previouSize) {
+            
+            n += (bucket.size() - previouSize);
+            modCount++;
+        }
+        
         return previousValue;
     }
     
@@ -129,7 +176,13 @@ public class ChainHashMap <K, V> extends AbstractHashMap<K, V> {
             
             int previouSize = bucket.size();
             V previousValue = bucket.remove(k);
-            n -= (previouSize - bucket.size());
+            
+            if (bucket.size() != previouSize) {
+                
+                n -= (previouSize - bucket.size());
+                modCount++;
+            }
+            
             return previousValue;
         }
         
@@ -137,32 +190,94 @@ public class ChainHashMap <K, V> extends AbstractHashMap<K, V> {
     
     
     /**
-     * Returns an iterable collection of all key-value entries of the map.
+     * Records the length of every bucket, including empty ones.
      *
-     * @return iterable collection of the map's entries
+     * @param stats the statistics to record into
      */
     @Override
-    public Iterable<Entry<K, V>> entrySet() {
-        
-        /*
-         * for each element in (UnsortedTableMap []) table for each element in bucket: print element
-         */
-        ArrayList<Entry<K, V>> temporary = new ArrayList<>();
+    protected void collectStats(HashMapStats stats) {
         
         for (UnsortedTableMap<K, V> bucket: table) {
             
-            if (bucket != null) {
-                
-                for (Entry<K, V> entry: bucket.entrySet()) {
-                    
-                    temporary.add(entry);
-                }
+            stats.record(bucket == null ? 0 : bucket.size());
+        }
+    }
+    
+    
+    // ---------------- nested EntryIterator class ----------------
+    /**
+     * Walks the bucket array in place. Throws ConcurrentModificationException if
+     * the map is structurally modified after the iterator was created.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final UnsortedTableMap<K, V>[] buckets = table;
+        private final int expectedModCount = modCount;
+        private int bucketIndex = 0; // bucket holding the next entry
+        private int entryIndex = 0; // position of the next entry within its bucket
+        
+        EntryIterator() {
+            advance();
+        }
+        
+        /** Moves to the next non-exhausted bucket, if the current one is used up. */
+        private void advance() {
+            while (bucketIndex < buckets.length
+                    && (buckets[bucketIndex] == null || entryIndex >= buckets[bucketIndex].size())) {
+                bucketIndex++;
+                entryIndex = 0;
+            }
+        }
+        
+        public boolean hasNext() {
+            return bucketIndex < buckets.length;
+        }
+        
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException("Map modified during iteration");
+            if (!hasNext())
+                throw new NoSuchElementException("No further entries");
+            Entry<K, V> entry = buckets[bucketIndex].entryAt(entryIndex++);
+            advance();
+            return entry;
+        }
+        
+        public void remove() {
+            throw new UnsupportedOperationException("remove not supported");
+        }
+    } // ----------- end of nested EntryIterator class -----------
+    
+    // ---------------- nested EntryIterable class ----------------
+    private class EntryIterable implements Iterable<Entry<K, V>> {
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            
+            for (Entry<K, V> entry: this) {
                 
+                sb.append(sb.length() == 1 ? "" : ", ").append(entry);
             }
             
+            return sb.append("]").toString();
         }
+    } // ----------- end of nested EntryIterable class -----------
+    
+    
+    /**
+     * Returns an iterable collection of all key-value entries of the map. The
+     * entries are produced lazily from the bucket array, so no copy of the map is
+     * made.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
         
-        return temporary;
+        return new EntryIterable();
     }
     
     
@@ -1,8 +1,11 @@
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ChainHashMapTest {
 
@@ -94,4 +97,112 @@ class ChainHashMapTest {
 		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
 	}
 
+	@Test
+	void testEntrySet() {
+		ChainHashMap<Integer, String> map = new ChainHashMap<Integer, String>();
+
+		int n = 100;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Entry<Integer, String> e : map.entrySet()) buf.add(e.getKey());
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals(n, buf.size());
+		assertEquals(0, buf.get(0));
+		assertEquals(n - 1, buf.get(n - 1));
+	}
+
+	@Test
+	void testEntrySetFailFast() {
+		ChainHashMap<Integer, String> map = new ChainHashMap<Integer, String>();
+
+		map.put(1, "one");
+		map.put(2, "two");
+		Iterator<Entry<Integer, String>> it = map.entrySet().iterator();
+		it.next();
+		map.put(1, "uno");
+		it.next();
+		map.put(3, "three");
+		assertThrows(ConcurrentModificationException.class, () -> it.next());
+	}
+
+	@Test
+	void testToString() {
+		ChainHashMap<Integer, String> map = new ChainHashMap<Integer, String>();
+
+		assertEquals("[]", map.toString());
+		map.put(7, "seven");
+		assertEquals("[7]", map.toString());
+	}
+
+	@Test
+	void testStats() {
+		ChainHashMap<Integer, String> map = new ChainHashMap<Integer, String>(17);
+
+		assertEquals(null, map.getStats());
+		map.enableStats();
+		int n = 12;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		HashMapStats stats = map.getStats();
+		assertEquals(n, stats.getSize());
+		assertEquals(33, stats.getCapacity());
+		assertEquals(1, stats.getResizeCount());
+		int buckets = 0, entries = 0;
+		int[] histogram = stats.getHistogram();
+		for(int i = 0; i < histogram.length; ++i) {
+			buckets += histogram[i];
+			entries += i * histogram[i];
+		}
+		assertEquals(33, buckets);
+		assertEquals(n, entries);
+
+		// the snapshot is not changed by later operations
+		for(int i = n; i < 2 * n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, stats.getSize());
+		assertEquals(1, stats.getResizeCount());
+		assertEquals(2 * n, map.getStats().getSize());
+		assertEquals(2, map.getStats().getResizeCount());
+	}
+
+	@Test
+	void testArrayConstructor() {
+		Integer[] keys = new Integer[100];
+		String[] values = new String[100];
+		for(int i = 0; i < keys.length; ++i) {
+			keys[i] = i;
+			values[i] = Integer.toString(i);
+		}
+		ChainHashMap<Integer, String> map = new ChainHashMap<Integer, String>(keys, values);
+
+		assertEquals(100, map.size());
+		assertEquals("42", map.get(42));
+		assertThrows(IllegalArgumentException.class, () -> new ChainHashMap<Integer, String>(keys, new String[1]));
+	}
+
+	@Test
+	void testPutAll() {
+		ChainHashMap<Integer, String> source = new ChainHashMap<Integer, String>();
+		int n = 1000;
+		for(int i = 0; i < n; ++i) {
+			source.put(i, Integer.toString(i));
+		}
+		ChainHashMap<Integer, String> map = new ChainHashMap<Integer, String>();
+		map.put(-1, "-1");
+		map.enableStats();
+		map.putAll(source);
+
+		assertEquals(n + 1, map.size());
+		assertEquals("999", map.get(999));
+		assertEquals("-1", map.get(-1));
+		assertEquals(1, map.getStats().getResizeCount());
+
+		ChainHashMap<Integer, String> copy = new ChainHashMap<Integer, String>(map.entrySet());
+		assertEquals(n + 1, copy.size());
+	}
+
 }
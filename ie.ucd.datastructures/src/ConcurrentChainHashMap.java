@@ -0,0 +1,391 @@
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe map implementation using lock-striped hash tables with
+ * separate chaining.
+ * <p>
+ * The map is partitioned into a fixed number of segments, each an independent
+ * chained hash table guarded by its own lock, so writers only contend when
+ * they hit the same segment. Chain nodes are immutable apart from their value,
+ * and every bucket head is published through an atomic array, so get never
+ * locks: a reader always sees either the chain before or after a concurrent
+ * write. Keys are spread with the same MAD compression as AbstractHashMap.
+ * <p>
+ * Iteration over entrySet, keySet or values is weakly consistent; it reflects
+ * the map at some point during the call and never throws on concurrent
+ * modification. Null keys and values are not permitted.
+ */
+public class ConcurrentChainHashMap<K, V> extends AbstractMap<K, V> {
+
+    /** Number of segments used when none is given. */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private final Segment<K, V>[] segments;
+    private final int prime; // prime factor
+    private final long scale, shift; // the shift and scaling factors
+
+    // ---------------- nested HashEntry class ----------------
+    /**
+     * A chain node. Only the value may change after construction, so a chain can
+     * be traversed safely without holding the segment lock.
+     */
+    private static class HashEntry<K, V> implements Entry<K, V> {
+        private final K key;
+        private final int hash;
+        private volatile V value;
+        private final HashEntry<K, V> next;
+
+        HashEntry(K key, int hash, V value, HashEntry<K, V> next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        /** Returns string representation (for debugging only) */
+        public String toString() {
+            return "" + key;
+        }
+    } // ----------- end of nested HashEntry class -----------
+
+    // ---------------- nested Segment class ----------------
+    /**
+     * An independently locked chained hash table holding a share of the entries.
+     * Readers use the current table without locking; writers lock the segment
+     * and replace bucket heads rather than mutating chains in place.
+     */
+    private static class Segment<K, V> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        private final int stride; // number of segments sharing the hash space
+        private volatile AtomicReferenceArray<HashEntry<K, V>> table;
+        private volatile int count; // number of entries in this segment
+
+        Segment(int cap, int stride) {
+            this.stride = stride;
+            table = new AtomicReferenceArray<>(cap);
+        }
+
+        /** Returns the bucket of a table of the given length for hash h. */
+        private int bucket(int h, int length) {
+            return (h / stride) % length;
+        }
+
+        V get(K key, int hash) {
+            AtomicReferenceArray<HashEntry<K, V>> tab = table;
+            HashEntry<K, V> e = tab.get(bucket(hash, tab.length()));
+
+            while (e != null) {
+                if (e.hash == hash && e.key.equals(key)) {
+                    return e.value;
+                }
+                e = e.next;
+            }
+
+            return null;
+        }
+
+        V put(K key, int hash, V value) {
+            lock();
+            try {
+                AtomicReferenceArray<HashEntry<K, V>> tab = table;
+                int j = bucket(hash, tab.length());
+                HashEntry<K, V> first = tab.get(j);
+
+                for (HashEntry<K, V> e = first; e != null; e = e.next) {
+                    if (e.hash == hash && e.key.equals(key)) {
+                        V previousValue = e.value;
+                        e.value = value;
+                        return previousValue;
+                    }
+                }
+
+                tab.set(j, new HashEntry<>(key, hash, value, first));
+                count++;
+
+                if (count > tab.length() / 2) {
+                    rehash(tab);
+                }
+
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        V remove(K key, int hash) {
+            lock();
+            try {
+                AtomicReferenceArray<HashEntry<K, V>> tab = table;
+                int j = bucket(hash, tab.length());
+                HashEntry<K, V> first = tab.get(j);
+                HashEntry<K, V> e = first;
+
+                while (e != null && !(e.hash == hash && e.key.equals(key))) {
+                    e = e.next;
+                }
+
+                if (e == null) {
+                    return null;
+                }
+
+                // nodes after e are kept; nodes before it are copied in front of them
+                HashEntry<K, V> newFirst = e.next;
+                for (HashEntry<K, V> p = first; p != e; p = p.next) {
+                    newFirst = new HashEntry<>(p.key, p.hash, p.value, newFirst);
+                }
+
+                tab.set(j, newFirst);
+                count--;
+                return e.value;
+            } finally {
+                unlock();
+            }
+        }
+
+        /** Builds a table of twice the size and publishes it (lock must be held). */
+        private void rehash(AtomicReferenceArray<HashEntry<K, V>> oldTab) {
+            AtomicReferenceArray<HashEntry<K, V>> newTab = new AtomicReferenceArray<>(2 * oldTab.length() + 1);
+
+            for (int i = 0; i < oldTab.length(); i++) {
+                for (HashEntry<K, V> e = oldTab.get(i); e != null; e = e.next) {
+                    int j = bucket(e.hash, newTab.length());
+                    newTab.set(j, new HashEntry<>(e.key, e.hash, e.value, newTab.get(j)));
+                }
+            }
+
+            table = newTab;
+        }
+
+        void addEntries(ArrayList<Entry<K, V>> list) {
+            AtomicReferenceArray<HashEntry<K, V>> tab = table;
+
+            for (int i = 0; i < tab.length(); i++) {
+                for (HashEntry<K, V> e = tab.get(i); e != null; e = e.next) {
+                    list.add(e);
+                }
+            }
+        }
+    } // ----------- end of nested Segment class -----------
+
+    /**
+     * Creates a map with capacity 17 split over 16 segments.
+     */
+    public ConcurrentChainHashMap() {
+
+        this(17);
+    }
+
+    /**
+     * Creates a map with the given total capacity split over 16 segments.
+     */
+    public ConcurrentChainHashMap(int cap) {
+
+        this(cap, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a map with the given total capacity split over the given number of
+     * independently locked segments.
+     *
+     * @param cap              the initial capacity of the whole map
+     * @param concurrencyLevel the number of segments
+     * @throws IllegalArgumentException if concurrencyLevel is not positive
+     */
+    @SuppressWarnings({ "unchecked" })
+    public ConcurrentChainHashMap(int cap, int concurrencyLevel) throws IllegalArgumentException {
+
+        if (concurrencyLevel <= 0) {
+
+            throw new IllegalArgumentException("Concurrency level must be positive");
+        }
+
+        prime = 109345121;
+        Random rand = new Random();
+        scale = rand.nextInt(prime - 1) + 1;
+        shift = rand.nextInt(prime);
+
+        int segmentCap = Math.max(2, cap / concurrencyLevel + 1);
+        segments = (Segment<K, V>[]) new Segment[concurrencyLevel];
+
+        for (int i = 0; i < concurrencyLevel; i++) {
+
+            segments[i] = new Segment<>(segmentCap, concurrencyLevel);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the map. The count is exact only when no
+     * writes are in progress.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+
+        int total = 0;
+
+        for (Segment<K, V> segment : segments) {
+
+            total += segment.count;
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists. Never blocks.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) {
+
+        int h = hashValue(key);
+        return segmentFor(h).get(key, h);
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     * @throws IllegalArgumentException if value is null
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+
+        if (value == null) {
+
+            throw new IllegalArgumentException("Null values are not permitted");
+        }
+
+        int h = hashValue(key);
+        return segmentFor(h).put(key, h, value);
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(K key) {
+
+        int h = hashValue(key);
+        return segmentFor(h).remove(key, h);
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+
+        ArrayList<Entry<K, V>> temporary = new ArrayList<>();
+
+        for (Segment<K, V> segment : segments) {
+
+            segment.addEntries(temporary);
+        }
+
+        return temporary;
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+    // private utilities
+
+    /** Hash function applying MAD method to default hash code. */
+    private int hashValue(K key) {
+
+        return (int) (Math.abs(key.hashCode() * scale + shift) % prime);
+    }
+
+    /** Returns the segment responsible for hash value h. */
+    private Segment<K, V> segmentFor(int h) {
+
+        return segments[h % segments.length];
+    }
+
+    /**
+     * Measures throughput of a 90% get / 10% put workload for an increasing number
+     * of threads.
+     */
+    public static void main(String[] args) throws InterruptedException {
+
+        int keys = 1 << 16;
+        int opsPerThread = 2_000_000;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+
+            ConcurrentChainHashMap<Integer, Integer> map = new ConcurrentChainHashMap<>(keys, 64);
+
+            for (int k = 0; k < keys; k++) {
+
+                map.put(k, k);
+            }
+
+            Thread[] workers = new Thread[threads];
+
+            for (int t = 0; t < threads; t++) {
+
+                final int seed = t;
+                workers[t] = new Thread(() -> {
+                    Random rnd = new Random(seed);
+
+                    for (int i = 0; i < opsPerThread; i++) {
+                        int k = rnd.nextInt(keys);
+                        if (rnd.nextInt(10) == 0) {
+                            map.put(k, i);
+                        } else {
+                            map.get(k);
+                        }
+                    }
+                });
+            }
+
+            long start = System.nanoTime();
+
+            for (Thread worker : workers) {
+
+                worker.start();
+            }
+
+            for (Thread worker : workers) {
+
+                worker.join();
+            }
+
+            double seconds = 1e-9 * (System.nanoTime() - start);
+            System.out.println(threads + "\t" + (long) (threads * opsPerThread / seconds) + " ops/s");
+        }
+    }
+
+}
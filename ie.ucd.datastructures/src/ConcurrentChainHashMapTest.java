@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrentChainHashMapTest {
+
+	@Test
+	void testSize() {
+		ConcurrentChainHashMap<Integer, String> map = new ConcurrentChainHashMap<Integer, String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		ConcurrentChainHashMap<String, Integer> map = new ConcurrentChainHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.get("5"));
+		assertEquals(2, map.get("2"));
+		assertEquals(null, map.get("12"));
+	}
+
+	@Test
+	void testRemove() {
+		ConcurrentChainHashMap<String, Integer> map = new ConcurrentChainHashMap<String, Integer>(4, 2);
+
+		int n = 100;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.remove("5"));
+		assertEquals(null, map.remove("5"));
+		assertEquals(n-1, map.size());
+		for(int i = 6; i < n; ++i) {
+			assertEquals(i, map.get(Integer.toString(i)));
+		}
+	}
+
+	@Test
+	void testValues() {
+		ConcurrentChainHashMap<String, Integer> map = new ConcurrentChainHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer s : map.values()) buf.add(s);
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
+	}
+
+	@Test
+	void testConcurrentPut() throws InterruptedException {
+		ConcurrentChainHashMap<Integer, Integer> map = new ConcurrentChainHashMap<Integer, Integer>(8, 4);
+
+		int threads = 8;
+		int perThread = 5000;
+		Thread[] workers = new Thread[threads];
+		for(int t = 0; t < threads; ++t) {
+			final int base = t * perThread;
+			workers[t] = new Thread(() -> {
+				for(int i = 0; i < perThread; ++i) {
+					map.put(base + i, base + i);
+					map.get(base + i / 2);
+				}
+			});
+			workers[t].start();
+		}
+		for(Thread worker : workers) worker.join();
+
+		assertEquals(threads * perThread, map.size());
+		for(int i = 0; i < threads * perThread; ++i) {
+			assertEquals(i, map.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,788 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe sorted map implemented as a lock-free skip list.
+ * <p>
+ * Every node has a tower of forward links, each an AtomicMarkableReference, so
+ * a link and the mark saying that its node is being deleted are updated
+ * together by a single compare-and-set. No operation ever takes a lock, as in
+ * the skip list of Fraser and Harris (here following Herlihy and Shavit). A
+ * node is inserted by linking it on level 0, which is the moment it becomes
+ * visible, and then on the levels above. A removal first clears the node's
+ * value, which is the moment the key disappears from the map. It then marks
+ * every link of the node from the top down, and searches unlink marked nodes
+ * as they pass them. get, ceilingEntry, higherEntry, firstEntry and iteration
+ * never write; they merely step over marked nodes. floorEntry, lowerEntry and
+ * lastEntry may land on a node whose value has been cleared but whose links
+ * are not yet marked. Rather than wait for the removing thread, they help it
+ * by marking the node's links themselves, using the same compare-and-set as
+ * remove, and then search again. They never unlink nodes.
+ * <p>
+ * Iteration over entrySet, keySet, values or subMap is weakly consistent:
+ * entries are read from level 0 as the iterator advances, never throw on
+ * concurrent modification, and reflect the map at some point since the
+ * iterator was created. The entries returned are snapshots. Null keys and
+ * values are not permitted.
+ */
+public class ConcurrentSkipList<K, V> extends AbstractSortedMap<K, V> {
+
+    /** Number of levels of the head tower; towers are at most this tall. */
+    private static final int MAX_LEVEL = 32;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Object> VALUE =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "value");
+
+    // ---------------- nested Node class ----------------
+    /**
+     * A node of the skip list. The value is null once the node has been
+     * removed.
+     */
+    private static class Node<K, V> {
+        private final K key;
+        private volatile Object value;
+        private final AtomicMarkableReference<Node<K, V>>[] next; // one link per level
+
+        @SuppressWarnings({ "unchecked" })
+        Node(K key, Object value, int height) {
+            this.key = key;
+            this.value = value;
+            next = new AtomicMarkableReference[height];
+        }
+
+        int topLevel() {
+            return next.length - 1;
+        }
+    } // ----------- end of nested Node class -----------
+
+    private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL); // precedes every key
+    private final Node<K, V> tail = new Node<>(null, null, MAX_LEVEL); // follows every key
+    private final LongAdder count = new LongAdder(); // number of entries
+    private final AtomicInteger levels = new AtomicInteger(1); // height of the tallest tower so far
+
+    /** Creates an empty map using the natural ordering of keys. */
+    public ConcurrentSkipList() {
+        super();
+        initialize();
+    }
+
+    /**
+     * Creates an empty map using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public ConcurrentSkipList(Comparator<K> comp) {
+        super(comp);
+        initialize();
+    }
+
+    /** Links head to tail on every level. */
+    private void initialize() {
+
+        for (int level = 0; level < MAX_LEVEL; level++) {
+
+            head.next[level] = new AtomicMarkableReference<>(tail, false);
+            tail.next[level] = new AtomicMarkableReference<>(null, false);
+        }
+    }
+
+    /** Compares the key of node, with head and tail acting as infinities, to key. */
+    private int compare(Node<K, V> node, K key) {
+
+        if (node == head) {
+
+            return -1;
+        }
+
+        if (node == tail) {
+
+            return 1;
+        }
+
+        return compare(node.key, key);
+    }
+
+    /** Returns a random tower height, each level being half as likely as the one below. */
+    private static int randomHeight() {
+
+        return 1 + Math.min(MAX_LEVEL - 1, Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt()));
+    }
+
+    /** Returns the value of node, or null if it has been removed. */
+    @SuppressWarnings({ "unchecked" })
+    private static <V> V valueOf(Node<?, V> node) {
+
+        return (V) node.value;
+    }
+
+    /**
+     * Fills preds and succs with, on each level in use, the last node before key
+     * and the node after it, unlinking marked nodes on the way. Returns true if
+     * succs[0] has the key.
+     */
+    private boolean find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+
+        boolean[] marked = { false };
+
+        retry: while (true) {
+
+            Node<K, V> pred = head;
+
+            for (int level = levels.get() - 1; level >= 0; level--) {
+
+                Node<K, V> curr = pred.next[level].getReference();
+
+                while (true) {
+
+                    Node<K, V> succ = curr.next[level].get(marked);
+
+                    while (marked[0]) { // curr is being deleted, so unlink it
+
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+
+                            continue retry; // pred changed under us
+                        }
+
+                        curr = succ;
+                        succ = curr.next[level].get(marked);
+                    }
+
+                    if (compare(curr, key) < 0) {
+
+                        pred = curr;
+                        curr = succ;
+                    } else {
+
+                        break;
+                    }
+                }
+
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+
+            return compare(succs[0], key) == 0;
+        }
+    }
+
+    /**
+     * Returns, without modifying the list, the last node on level 0 whose key is
+     * less than key (possibly head). If after is not null, after[0] is set to
+     * the node following it.
+     */
+    private Node<K, V> findPredecessor(K key, Node<K, V>[] after) {
+
+        boolean[] marked = { false };
+        Node<K, V> pred = head;
+        Node<K, V> curr = null;
+
+        for (int level = levels.get() - 1; level >= 0; level--) {
+
+            curr = pred.next[level].getReference();
+
+            while (true) {
+
+                Node<K, V> succ = curr.next[level].get(marked);
+
+                while (marked[0]) {
+
+                    curr = succ;
+                    succ = curr.next[level].get(marked);
+                }
+
+                if (compare(curr, key) < 0) {
+
+                    pred = curr;
+                    curr = succ;
+                } else {
+
+                    break;
+                }
+            }
+        }
+
+        if (after != null) {
+
+            after[0] = curr;
+        }
+
+        return pred;
+    }
+
+    /** Marks every link of node, from the top down, so that searches unlink it. */
+    private void markTower(Node<K, V> node) {
+
+        boolean[] marked = { false };
+
+        for (int level = node.topLevel(); level >= 0; level--) {
+
+            Node<K, V> succ = node.next[level].get(marked);
+
+            while (!marked[0]) {
+
+                node.next[level].compareAndSet(succ, succ, false, true);
+                succ = node.next[level].get(marked);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries in the map. The count may be momentarily
+     * out of date while other threads are updating the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, count.sum()));
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     * @throws IllegalArgumentException if the key is null or not compatible
+     */
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        Node<K, V>[] after = newArray(1);
+        findPredecessor(key, after);
+        return (compare(after[0], key) == 0) ? valueOf(after[0]) : null;
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaces the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key or value is null
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+
+        checkKey(key);
+
+        if (value == null) {
+
+            throw new IllegalArgumentException("Null values are not permitted");
+        }
+
+        Node<K, V>[] preds = newArray(MAX_LEVEL);
+        Node<K, V>[] succs = newArray(MAX_LEVEL);
+        int height = randomHeight();
+        int current = levels.get();
+
+        while (height > current && !levels.compareAndSet(current, height)) { // so that find fills every level
+
+            current = levels.get();
+        }
+
+        while (true) {
+
+            if (find(key, preds, succs)) {
+
+                Node<K, V> node = succs[0];
+                V previousValue = valueOf(node);
+
+                if (previousValue == null) {
+
+                    markTower(node); // help the removal finish, then look again
+                } else if (VALUE.compareAndSet(node, previousValue, value)) {
+
+                    return previousValue;
+                }
+
+                continue;
+            }
+
+            Node<K, V> node = new Node<>(key, value, height);
+
+            for (int level = 0; level < height; level++) {
+
+                node.next[level] = new AtomicMarkableReference<>(succs[level], false);
+            }
+
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+
+                continue; // level 0 changed; search again
+            }
+
+            count.increment();
+            linkUpperLevels(node, preds, succs);
+            return null;
+        }
+    }
+
+    /**
+     * Links node, already present on level 0, into the levels above. Gives up
+     * if the node is removed in the meantime.
+     */
+    private void linkUpperLevels(Node<K, V> node, Node<K, V>[] preds, Node<K, V>[] succs) {
+
+        for (int level = 1; level <= node.topLevel(); level++) {
+
+            while (true) {
+
+                Node<K, V> succ = succs[level];
+                AtomicMarkableReference<Node<K, V>> link = node.next[level];
+                Node<K, V> current = link.getReference();
+
+                if (link.isMarked()) {
+
+                    return; // being removed
+                }
+
+                if (current != succ && !link.compareAndSet(current, succ, false, false)) {
+
+                    continue; // marked or changed; check again
+                }
+
+                if (preds[level].next[level].compareAndSet(succ, node, false, false)) {
+
+                    break;
+                }
+
+                find(node.key, preds, succs);
+
+                if (succs[0] != node) {
+
+                    return; // removed while being linked
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     * @throws IllegalArgumentException if the key is null or not compatible
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        Node<K, V>[] preds = newArray(MAX_LEVEL);
+        Node<K, V>[] succs = newArray(MAX_LEVEL);
+
+        while (true) {
+
+            if (!find(key, preds, succs)) {
+
+                return null;
+            }
+
+            Node<K, V> node = succs[0];
+            V previousValue = valueOf(node);
+
+            if (previousValue == null) {
+
+                markTower(node); // already removed by another thread
+                return null;
+            }
+
+            if (VALUE.compareAndSet(node, previousValue, null)) {
+
+                count.decrement();
+                markTower(node);
+                find(key, preds, succs); // unlink the node
+                return previousValue;
+            }
+        }
+    }
+
+    /** Throws IllegalArgumentException for a null or incompatible key. */
+    @Override
+    protected boolean checkKey(K key) throws IllegalArgumentException {
+
+        if (key == null) {
+
+            throw new IllegalArgumentException("Null keys are not permitted");
+        }
+
+        return super.checkKey(key);
+    }
+
+    @SuppressWarnings({ "unchecked" })
+    private static <K, V> Node<K, V>[] newArray(int length) {
+
+        return (Node<K, V>[]) new Node[length];
+    }
+
+    // navigation
+
+    /** Returns a snapshot of node, or null if it is tail or has been removed. */
+    private Entry<K, V> snapshot(Node<K, V> node) {
+
+        if (node == tail || node == head) {
+
+            return null;
+        }
+
+        V value = valueOf(node);
+        return (value == null) ? null : new MapEntry<>(node.key, value);
+    }
+
+    /** Returns the first live node on level 0 at or after node, or tail. */
+    private Node<K, V> skipRemoved(Node<K, V> node) {
+
+        while (node != tail && valueOf(node) == null) {
+
+            node = node.next[0].getReference();
+        }
+
+        return node;
+    }
+
+    /** Returns the first live node whose key is at least key (or above key if not inclusive), or tail. */
+    private Node<K, V> ceilingNode(K key, boolean inclusive) {
+
+        Node<K, V>[] after = newArray(1);
+        findPredecessor(key, after);
+        Node<K, V> node = skipRemoved(after[0]);
+
+        if (!inclusive && node != tail && compare(node.key, key) == 0) {
+
+            node = skipRemoved(node.next[0].getReference());
+        }
+
+        return node;
+    }
+
+    /**
+     * Returns a snapshot of the last live entry below key (or at key if
+     * inclusive). If the entry found is being removed, this helps to mark it.
+     */
+    private Entry<K, V> floorEntry(K key, boolean inclusive) {
+
+        Node<K, V>[] after = newArray(1);
+
+        while (true) {
+
+            Node<K, V> pred = findPredecessor(key, after);
+
+            if (inclusive && compare(after[0], key) == 0) {
+
+                Entry<K, V> entry = snapshot(after[0]);
+
+                if (entry != null) {
+
+                    return entry;
+                }
+            }
+
+            if (pred == head) {
+
+                return null;
+            }
+
+            Entry<K, V> entry = snapshot(pred);
+
+            if (entry != null) {
+
+                return entry;
+            }
+
+            markTower(pred); // pred was removed after it was passed; help, then search again
+        }
+    }
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> firstEntry() {
+
+        while (true) {
+
+            Node<K, V> node = skipRemoved(head.next[0].getReference());
+
+            if (node == tail) {
+
+                return null;
+            }
+
+            Entry<K, V> entry = snapshot(node);
+
+            if (entry != null) {
+
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> lastEntry() {
+
+        boolean[] marked = { false };
+
+        while (true) {
+
+            Node<K, V> pred = head;
+
+            for (int level = levels.get() - 1; level >= 0; level--) {
+
+                Node<K, V> curr = pred.next[level].getReference();
+
+                while (curr != tail) {
+
+                    Node<K, V> succ = curr.next[level].get(marked);
+
+                    if (!marked[0]) {
+
+                        pred = curr;
+                    }
+
+                    curr = succ;
+                }
+            }
+
+            if (pred == head) {
+
+                return null;
+            }
+
+            Entry<K, V> entry = snapshot(pred);
+
+            if (entry != null) {
+
+                return entry;
+            }
+
+            markTower(pred); // removed after it was passed; help, then search again
+        }
+    }
+
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        return snapshotFrom(ceilingNode(key, true));
+    }
+
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        return floorEntry(key, true);
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        return floorEntry(key, false);
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+
+        checkKey(key);
+        return snapshotFrom(ceilingNode(key, false));
+    }
+
+    /** Returns a snapshot of the first live node at or after node, or null if none. */
+    private Entry<K, V> snapshotFrom(Node<K, V> node) {
+
+        while (node != tail) {
+
+            Entry<K, V> entry = snapshot(node);
+
+            if (entry != null) {
+
+                return entry;
+            }
+
+            node = node.next[0].getReference();
+        }
+
+        return null;
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    /**
+     * Walks level 0 from a given node up to, but excluding, a bound, returning
+     * snapshots of the live entries.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Node<K, V> cursor; // node the next call to hasNext examines
+        private Entry<K, V> pending; // entry to be returned by next, or null
+        private final K toKey; // exclusive upper bound, or null for none
+
+        EntryIterator(Node<K, V> start, K toKey) {
+            cursor = start;
+            this.toKey = toKey;
+        }
+
+        public boolean hasNext() {
+            while (pending == null && cursor != tail) {
+                if (toKey != null && compare(cursor.key, toKey) >= 0) {
+                    cursor = tail;
+                    break;
+                }
+                pending = snapshot(cursor);
+                cursor = cursor.next[0].getReference();
+            }
+            return pending != null;
+        }
+
+        public Entry<K, V> next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more entries");
+            }
+            Entry<K, V> answer = pending;
+            pending = null;
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map, in
+     * increasing order of keys.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+
+        return () -> new EntryIterator(head.next[0].getReference(), null);
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive. The entries
+     * are found as the iteration proceeds, in O(log n) time for the first and
+     * O(1) for each further entry.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+
+        checkKey(fromKey);
+        checkKey(toKey);
+        return () -> new EntryIterator(ceilingNode(fromKey, true), toKey);
+    }
+
+    public String toString() {
+
+        return keySet().toString();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        int keys = 1 << 16;
+        int opsPerThread = 2_000_000;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+
+            ConcurrentSkipList<Integer, Integer> map = new ConcurrentSkipList<>();
+
+            for (int k = 0; k < keys; k += 2) {
+
+                map.put(k, k);
+            }
+
+            Thread[] workers = new Thread[threads];
+
+            for (int t = 0; t < threads; t++) {
+
+                final int seed = t;
+                workers[t] = new Thread(() -> {
+                    Random rnd = new Random(seed);
+
+                    for (int i = 0; i < opsPerThread; i++) {
+                        int k = rnd.nextInt(keys);
+                        int op = rnd.nextInt(10);
+                        if (op == 0) {
+                            map.put(k, i);
+                        } else if (op == 1) {
+                            map.remove(k);
+                        } else {
+                            map.get(k);
+                        }
+                    }
+                });
+            }
+
+            long start = System.nanoTime();
+
+            for (Thread worker : workers) {
+
+                worker.start();
+            }
+
+            for (Thread worker : workers) {
+
+                worker.join();
+            }
+
+            double seconds = 1e-9 * (System.nanoTime() - start);
+            System.out.println(threads + "\t" + (long) (threads * opsPerThread / seconds) + " ops/s");
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrentSkipListTest {
+
+	@Test
+	void testPutGetRemove() {
+		ConcurrentSkipList<Integer, String> map = new ConcurrentSkipList<Integer, String>();
+		java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(1);
+
+		for (int i = 0; i < 20000; i++) {
+			int k = rnd.nextInt(2000);
+			String v = Integer.toString(i);
+			switch (rnd.nextInt(3)) {
+			case 0:
+				assertEquals(expected.put(k, v), map.put(k, v));
+				break;
+			case 1:
+				assertEquals(expected.remove(k), map.remove(k));
+				break;
+			default:
+				assertEquals(expected.get(k), map.get(k));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected.keySet().toString(), map.toString());
+	}
+
+	@Test
+	void testNavigation() {
+		ConcurrentSkipList<Integer, String> map = new ConcurrentSkipList<Integer, String>();
+		assertNull(map.firstEntry());
+		assertNull(map.lastEntry());
+
+		for (int i = 0; i < 100; i += 10) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(0, map.firstEntry().getKey());
+		assertEquals(90, map.lastEntry().getKey());
+		assertEquals(20, map.ceilingEntry(20).getKey());
+		assertEquals(30, map.ceilingEntry(21).getKey());
+		assertNull(map.ceilingEntry(91));
+		assertEquals(20, map.floorEntry(20).getKey());
+		assertEquals(20, map.floorEntry(29).getKey());
+		assertNull(map.floorEntry(-1));
+		assertEquals(10, map.lowerEntry(20).getKey());
+		assertNull(map.lowerEntry(0));
+		assertEquals(30, map.higherEntry(20).getKey());
+		assertNull(map.higherEntry(90));
+
+		ArrayList<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, String> entry : map.subMap(15, 60)) {
+			keys.add(entry.getKey());
+		}
+		assertEquals("[20, 30, 40, 50]", keys.toString());
+	}
+
+	@Test
+	void testConcurrentUpdates() throws InterruptedException {
+		ConcurrentSkipList<Integer, Integer> map = new ConcurrentSkipList<Integer, Integer>();
+		int threads = 8;
+		int perThread = 5000;
+		Thread[] workers = new Thread[threads];
+
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			workers[t] = new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					map.put(i * threads + id, id);
+				}
+				for (int i = 0; i < perThread; i += 2) {
+					map.remove(i * threads + id);
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertEquals(threads * perThread / 2, map.size());
+		int previous = -1;
+		int count = 0;
+		for (Entry<Integer, Integer> entry : map.entrySet()) {
+			int k = entry.getKey();
+			assertEquals(1, (k / threads) % 2);
+			assertEquals(k % threads, entry.getValue());
+			assertEquals(true, k > previous);
+			previous = k;
+			count++;
+		}
+		assertEquals(threads * perThread / 2, count);
+	}
+
+	@Test
+	void testNulls() {
+		ConcurrentSkipList<Integer, Integer> map = new ConcurrentSkipList<Integer, Integer>();
+		assertThrows(IllegalArgumentException.class, () -> map.put(null, 1));
+		assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+	}
+
+}
@@ -0,0 +1,162 @@
+/**
+ * A count-min sketch estimating how often each element has been seen, in a
+ * fixed amount of memory regardless of the number of distinct elements.
+ * <p>
+ * The sketch has four rows of counters, each row indexed by a different hash
+ * of the element. An increment bumps the element's counter in every row, and
+ * the estimate is the smallest of those counters: collisions can only inflate
+ * a counter, so the estimate never falls below the true count (up to the
+ * counter limit). Counters are four bits wide, sixteen to a long, and saturate
+ * at 15. Once the number of increments reaches ten times the width of a row,
+ * every counter is halved, so the sketch follows recent popularity rather than
+ * all-time counts, as in TinyLFU.
+ */
+public class CountMinSketch<E> {
+
+    /** Number of rows, i.e. independent hashes per element. */
+    private static final int DEPTH = 4;
+
+    /** Largest value a counter can hold. */
+    public static final int MAX_COUNT = 15;
+
+    private static final long[] SEEDS = { 0x97CB3127L, 0xB7BD9B7FL, 0xC3A5C85CL, 0x9AE16A3BL };
+    private static final long RESET_MASK = 0x7777777777777777L; // clears the bit shifted in from a neighbour
+
+    private final long[] table; // DEPTH rows of width four-bit counters
+    private final int width; // counters per row, a power of two
+    private final int sampleSize; // increments between two halvings
+    private int additions = 0; // increments since the last halving
+
+    /**
+     * Creates a sketch sized for the given number of distinct elements of
+     * interest.
+     *
+     * @param expectedItems the number of elements whose counts should stay
+     *                      accurate
+     * @throws IllegalArgumentException if expectedItems is negative
+     */
+    public CountMinSketch(int expectedItems) throws IllegalArgumentException {
+
+        if (expectedItems < 0) {
+
+            throw new IllegalArgumentException("Expected items must not be negative");
+        }
+
+        width = Integer.highestOneBit((Math.max(16, Math.min(expectedItems, 1 << 28)) - 1) << 1);
+        table = new long[DEPTH * width / 16];
+        sampleSize = 10 * width;
+    }
+
+    /**
+     * Returns the position of the counter for element hash h in the given row.
+     */
+    private int indexOf(int h, int row) {
+
+        long x = (h + SEEDS[row]) * SEEDS[row];
+        x += x >>> 32;
+        return row * width + ((int) x & (width - 1));
+    }
+
+    /** Returns a hash of e with its bits well mixed. */
+    private static int spread(Object e) {
+
+        int h = e.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns the value of counter i. */
+    private int counter(int i) {
+
+        return (int) ((table[i >>> 4] >>> ((i & 15) << 2)) & 0xFL);
+    }
+
+    /**
+     * Records one more occurrence of element e.
+     *
+     * @param e the element seen
+     */
+    public void increment(E e) {
+
+        int h = spread(e);
+        boolean added = false;
+
+        for (int row = 0; row < DEPTH; row++) {
+
+            int i = indexOf(h, row);
+
+            if (counter(i) < MAX_COUNT) {
+
+                table[i >>> 4] += 1L << ((i & 15) << 2);
+                added = true;
+            }
+        }
+
+        if (added && ++additions == sampleSize) {
+
+            reset();
+        }
+    }
+
+    /**
+     * Returns the estimated number of occurrences of element e, at most
+     * MAX_COUNT.
+     *
+     * @param e the element of interest
+     * @return the estimated frequency of e
+     */
+    public int frequency(E e) {
+
+        int h = spread(e);
+        int answer = MAX_COUNT;
+
+        for (int row = 0; row < DEPTH; row++) {
+
+            answer = Math.min(answer, counter(indexOf(h, row)));
+        }
+
+        return answer;
+    }
+
+    /**
+     * Halves every counter, so that old occurrences count for less than recent
+     * ones.
+     */
+    public void reset() {
+
+        for (int i = 0; i < table.length; i++) {
+
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+
+        additions /= 2;
+    }
+
+    /**
+     * Returns the number of counters in each row.
+     *
+     * @return the width of the sketch
+     */
+    public int width() {
+
+        return width;
+    }
+
+    public static void main(String[] args) {
+
+        CountMinSketch<String> sketch = new CountMinSketch<>(100);
+
+        for (int i = 0; i < 10; i++) {
+
+            for (int j = 0; j <= i; j++) {
+
+                sketch.increment("key" + i);
+            }
+        }
+
+        for (int i = 0; i < 10; i++) {
+
+            System.out.println("key" + i + ": " + sketch.frequency("key" + i));
+        }
+    }
+
+}
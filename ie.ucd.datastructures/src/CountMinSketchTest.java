@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+	@Test
+	void testNeverUnderestimates() {
+		CountMinSketch<Integer> sketch = new CountMinSketch<Integer>(1000);
+
+		for (int i = 0; i < 200; i++) {
+			for (int j = 0; j < i % 10; j++) {
+				sketch.increment(i);
+			}
+		}
+		for (int i = 0; i < 200; i++) {
+			assertTrue(sketch.frequency(i) >= i % 10);
+		}
+	}
+
+	@Test
+	void testSaturates() {
+		CountMinSketch<String> sketch = new CountMinSketch<String>(16);
+
+		for (int i = 0; i < 100; i++) {
+			sketch.increment("a");
+		}
+		assertEquals(CountMinSketch.MAX_COUNT, sketch.frequency("a"));
+	}
+
+	@Test
+	void testReset() {
+		CountMinSketch<String> sketch = new CountMinSketch<String>(16);
+
+		for (int i = 0; i < 10; i++) {
+			sketch.increment("a");
+		}
+		sketch.reset();
+		assertEquals(5, sketch.frequency("a"));
+		assertEquals(0, sketch.frequency("b"));
+	}
+
+}
@@ -0,0 +1,357 @@
+import java.util.ArrayList;
+
+/**
+ * Map implementation using cuckoo hashing.
+ * <p>
+ * Every key has exactly two candidate slots, given by the primary MAD hash of
+ * AbstractHashMap and by the secondary hash derived from the same parameters.
+ * A key always lives in one of them, so a lookup inspects at most those two
+ * slots (plus a tiny stash, which is almost always empty). An insertion whose
+ * slots are both taken evicts one occupant, which moves to its own other slot,
+ * and so on for a bounded number of kicks. An entry still homeless after that
+ * goes into the stash; when the stash is full the table is rebuilt with fresh
+ * hash parameters.
+ */
+public class CuckooHashMap<K, V> extends AbstractHashMap<K, V> {
+
+    /** Longest eviction chain tried before an entry is stashed. */
+    private static final int MAX_KICKS = 64;
+
+    /** Number of entries the stash can hold. */
+    private static final int STASH_SIZE = 4;
+
+    /** Number of failed rebuilds at the same capacity before the table grows. */
+    private static final int MAX_RESEEDS = 4;
+
+    /** Number of table growths within one rebuild before the stash grows too. */
+    private static final int MAX_GROWTHS = 2;
+
+    private Object[] keys; // initialized within createTable
+    private Object[] values; // initialized within createTable
+    private Object[] stashKeys; // entries that found no slot
+    private Object[] stashValues;
+    private int stashSize; // number of entries in the stash
+
+    /**
+     * Creates a hash table with capacity 17 and prime factor 109345121.
+     */
+    public CuckooHashMap() {
+
+        super();
+    }
+
+    /**
+     * Creates a hash table with given capacity and prime factor 109345121.
+     */
+    public CuckooHashMap(int cap) {
+
+        super(cap);
+    }
+
+    /**
+     * Creates a hash table with the given capacity and prime factor.
+     */
+    public CuckooHashMap(int cap, int p) {
+
+        super(cap, p);
+    }
+
+    /**
+     * Creates an empty table having length equal to current capacity.
+     */
+    @Override
+    protected void createTable() {
+
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        stashKeys = new Object[STASH_SIZE];
+        stashValues = new Object[STASH_SIZE];
+        stashSize = 0;
+    }
+
+    /**
+     * Returns the load factor above which the table is doubled in size. Two
+     * choices per key in a single table become unreliable close to 1/2.
+     *
+     * @return the maximum ratio of entries to capacity before resizing
+     */
+    @Override
+    protected double maxLoad() {
+
+        return 0.4;
+    }
+
+    /**
+     * Returns the slot holding key k, whose primary slot is h: h itself, its
+     * secondary slot, or -(i+1) for position i of the stash. Returns
+     * Integer.MIN_VALUE if k is not present.
+     */
+    private int findSlot(int h, K k) {
+
+        if (k.equals(keys[h])) {
+
+            return h;
+        }
+
+        int h2 = altHashValue(k);
+
+        if (k.equals(keys[h2])) {
+
+            return h2;
+        }
+
+        for (int i = 0; i < stashSize; i++) {
+
+            if (k.equals(stashKeys[i])) {
+
+                return -(i + 1);
+            }
+        }
+
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns value associated with key k in bucket with hash value h. If no such
+     * entry exists, returns null.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return associate value (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketGet(int h, K k) {
+
+        int j = findSlot(h, k);
+
+        if (j == Integer.MIN_VALUE) {
+
+            return null;
+        }
+
+        return (V) (j >= 0 ? values[j] : stashValues[-(j + 1)]);
+    }
+
+    /**
+     * Associates key k with value v in bucket with hash value h, returning the
+     * previously associated value, if any.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @param v the value to be associated
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketPut(int h, K k, V v) {
+
+        int j = findSlot(h, k);
+
+        if (j >= 0) { // this key has an existing entry
+
+            V previousValue = (V) values[j];
+            values[j] = v;
+            return previousValue;
+        }
+
+        if (j != Integer.MIN_VALUE) { // this key is in the stash
+
+            V previousValue = (V) stashValues[-(j + 1)];
+            stashValues[-(j + 1)] = v;
+            return previousValue;
+        }
+
+        n++;
+        MapEntry<K, V> homeless = place(k, v);
+
+        if (homeless != null) {
+
+            rebuild(homeless);
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes entry having key k from bucket with hash value h, returning the
+     * previously associated value, if found.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketRemove(int h, K k) {
+
+        int j = findSlot(h, k);
+
+        if (j == Integer.MIN_VALUE) {
+
+            return null; // nothing to remove
+        }
+
+        V previousValue;
+
+        if (j >= 0) {
+
+            previousValue = (V) values[j];
+            keys[j] = null;
+            values[j] = null;
+        } else {
+
+            int i = -(j + 1);
+            previousValue = (V) stashValues[i];
+            stashSize--;
+            stashKeys[i] = stashKeys[stashSize]; // fill the gap with the last stashed entry
+            stashValues[i] = stashValues[stashSize];
+            stashKeys[stashSize] = null;
+            stashValues[stashSize] = null;
+        }
+
+        n--;
+        return previousValue;
+    }
+
+    /**
+     * Inserts a key known to be absent, evicting occupants along a bounded path.
+     * Returns null on success (including being stashed), or the entry left
+     * without a slot if both the path and the stash are exhausted.
+     */
+    @SuppressWarnings({ "unchecked" })
+    private MapEntry<K, V> place(K k, V v) {
+
+        int j = hashValue(k);
+
+        if (keys[j] != null) {
+
+            int h2 = altHashValue(k);
+
+            if (keys[h2] == null) {
+
+                j = h2;
+            }
+        }
+
+        Object key = k; // the entry currently looking for a slot
+        Object value = v;
+
+        for (int kick = 0; kick < MAX_KICKS && keys[j] != null; kick++) {
+
+            Object evictedKey = keys[j];
+            Object evictedValue = values[j];
+            keys[j] = key;
+            values[j] = value;
+            key = evictedKey;
+            value = evictedValue;
+
+            int h1 = hashValue((K) key); // the evicted entry moves to its other slot
+            j = (h1 == j) ? altHashValue((K) key) : h1;
+        }
+
+        if (keys[j] == null) {
+
+            keys[j] = key;
+            values[j] = value;
+            return null;
+        }
+
+        if (stashSize < stashKeys.length) {
+
+            stashKeys[stashSize] = key;
+            stashValues[stashSize] = value;
+            stashSize++;
+            return null;
+        }
+
+        return new MapEntry<>((K) key, (V) value);
+    }
+
+    /**
+     * Rebuilds the table with fresh hash parameters until every entry, including
+     * the homeless one, has a place. If reseeding alone keeps failing the table
+     * grows, and if that fails too (many keys sharing a hash code) the stash
+     * grows.
+     */
+    private void rebuild(MapEntry<K, V> homeless) {
+
+        long start = System.nanoTime();
+        ArrayList<Entry<K, V>> all = new ArrayList<>(n);
+
+        for (Entry<K, V> entry : entrySet()) {
+
+            all.add(entry);
+        }
+
+        all.add(homeless);
+        int attempts = 0;
+        int growths = 0;
+        boolean placed;
+
+        do {
+
+            if (++attempts > MAX_RESEEDS) {
+
+                capacity = 2 * capacity - 1;
+                attempts = 0;
+                growths++;
+            }
+
+            reseed();
+            createTable();
+
+            if (growths > MAX_GROWTHS) {
+
+                stashKeys = new Object[STASH_SIZE << (growths - MAX_GROWTHS)];
+                stashValues = new Object[stashKeys.length];
+            }
+
+            placed = true;
+
+            for (Entry<K, V> entry : all) {
+
+                if (place(entry.getKey(), entry.getValue()) != null) {
+
+                    placed = false;
+                    break;
+                }
+            }
+        } while (!placed);
+
+        recordResize(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    public Iterable<Entry<K, V>> entrySet() {
+
+        ArrayList<Entry<K, V>> temporary = new ArrayList<>(n);
+
+        for (int j = 0; j < keys.length; j++) {
+
+            if (keys[j] != null) {
+
+                temporary.add(new MapEntry<>((K) keys[j], (V) values[j]));
+            }
+        }
+
+        for (int i = 0; i < stashSize; i++) {
+
+            temporary.add(new MapEntry<>((K) stashKeys[i], (V) stashValues[i]));
+        }
+
+        return temporary;
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+}
@@ -0,0 +1,167 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CuckooHashMapTest {
+
+	@Test
+	void testSize() {
+		CuckooHashMap<Integer, String> map = new CuckooHashMap<Integer, String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.get("5"));
+		assertEquals(2, map.get("2"));
+	}
+
+	@Test
+	void testRemove() {
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.remove("5"));
+		assertEquals(n-1, map.size());
+	}
+
+	@Test
+	void testPut() {
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(n, map.size());		
+	}
+
+	@Test
+	void testIsEmpty() {
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<String, Integer>();
+
+		assertEquals(true, map.isEmpty());
+		
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(false, map.isEmpty());	
+	}
+
+	@Test
+	void testKeySet() {
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<String, Integer>();
+
+		map.put("one", 1);
+		map.put("two", 2);
+		map.put("three", 3);
+		ArrayList<String> buf = new ArrayList<>();
+		for(String s : map.keySet()) buf.add(s);
+		buf.sort(new DefaultComparator<String>());
+		assertEquals("[one, three, two]", buf.toString());
+	}
+
+	@Test
+	void testValues() {
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer s : map.values()) buf.add(s);
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
+	}
+
+	@Test
+	void testRemoveThenGet() {
+		CuckooHashMap<Integer, String> map = new CuckooHashMap<Integer, String>(7);
+
+		int n = 50;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		for(int i = 0; i < n; i += 2) {
+			assertEquals(Integer.toString(i), map.remove(i));
+		}
+		for(int i = 1; i < n; i += 2) {
+			assertEquals(Integer.toString(i), map.get(i));
+		}
+		assertEquals(null, map.get(0));
+		assertEquals(n/2, map.size());
+	}
+
+	@Test
+	void testAgainstHashMap() {
+		CuckooHashMap<Integer, Integer> map = new CuckooHashMap<Integer, Integer>(11);
+		HashMap<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		Random rnd = new Random(20);
+
+		for(int i = 0; i < 5000; ++i) {
+			int k = rnd.nextInt(500);
+			if(rnd.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for(int k = 0; k < 500; ++k) {
+			assertEquals(expected.get(k), map.get(k));
+		}
+	}
+
+	@Test
+	void testEqualHashCodes() {
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<String, Integer>();
+		// "Aa" and "BB" share a hash code, so every string built from them does too
+		String[] parts = {"Aa", "BB"};
+		int n = 0;
+		for(String a : parts) for(String b : parts) for(String c : parts) {
+			map.put(a + b + c, n++);
+		}
+		assertEquals(8, map.size());
+		assertEquals(0, map.get("AaAaAa"));
+		assertEquals(7, map.get("BBBBBB"));
+		assertEquals(7, map.remove("BBBBBB"));
+		assertEquals(null, map.get("BBBBBB"));
+	}
+
+	@Test
+	void testRebuildStats() {
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<String, Integer>(1001);
+		map.enableStats();
+		// eight keys sharing a hash code cannot all fit in two slots and the stash,
+		// so the table is rebuilt although it never reaches its load limit
+		String[] parts = {"Aa", "BB"};
+		int n = 0;
+		for(String a : parts) for(String b : parts) for(String c : parts) {
+			map.put(a + b + c, n++);
+		}
+		assertEquals(8, map.size());
+		assertTrue(map.getStats().getResizeCount() > 0);
+	}
+
+}
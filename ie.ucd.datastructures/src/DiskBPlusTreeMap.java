@@ -0,0 +1,1180 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of a sorted map using a B+ tree stored in a file, so the
+ * map may be far larger than the Java heap and outlives the process.
+ * <p>
+ * The file is a sequence of fixed-size pages. Page 0 is a header recording the
+ * layout, the root page and the number of entries; every other page is a node
+ * of the tree laid out as in BPlusTreeMap, with the keys of a node in one
+ * contiguous run of fixed-width slots, or a free page awaiting reuse. Keys and
+ * values are converted to and from bytes by the given Serializers, and keys
+ * are ordered by comparing their deserialized form.
+ * <p>
+ * Pages are read through a FileChannel into a page cache, an LRUCache of at
+ * least 64 pages, and modified pages are written back when the cache evicts
+ * them or when the map is flushed. Opening an existing file reads only the
+ * header, so it takes O(1) time whatever the size of the map; the nodes are
+ * read as searches reach them. Changes are durable once flush() or close()
+ * returns; a map that is neither flushed nor closed may leave the file in an
+ * inconsistent state.
+ */
+public class DiskBPlusTreeMap<K, V> extends AbstractSortedMap<K, V> implements AutoCloseable {
+
+    /** Default size of a page in bytes. */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
+    /** Default number of pages held by the page cache. */
+    public static final int DEFAULT_CACHE_PAGES = 1024;
+
+    /**
+     * Smallest page cache allowed. An operation touches at most a few pages per
+     * level of the tree, and all of them must stay cached until it completes.
+     */
+    private static final int MIN_CACHE_PAGES = 64;
+
+    private static final int MAGIC = 0x42504C54; // "BPLT"
+
+    // header fields, by offset within page 0
+    private static final int H_MAGIC = 0;
+    private static final int H_PAGE_SIZE = 4;
+    private static final int H_KEY_SIZE = 8;
+    private static final int H_VALUE_SIZE = 12;
+    private static final int H_ROOT = 16;
+    private static final int H_SIZE = 24;
+    private static final int H_PAGE_COUNT = 32;
+    private static final int H_FREE = 40;
+
+    // page types, stored in the first byte of each page
+    private static final byte FREE = 0;
+    private static final byte LEAF = 1;
+    private static final byte INNER = 2;
+
+    // node page layout: type byte, then the number of keys as an int
+    private static final int COUNT = 4;
+    private static final int PREVIOUS = 8; // leaf: page of the previous leaf (0 for none)
+    private static final int NEXT = 16; // leaf: page of the next leaf; free page: next free page
+    private static final int LEAF_KEYS = 24; // leaf: first key slot
+    private static final int INNER_KEYS = 8; // inner node: first key slot
+
+    private static final long FIRST_LEAF = 1; // splits and merges always keep the leftmost leaf
+
+    // ---------------- nested Page class ----------------
+    /** A page of the file held in the cache. */
+    private static class Page {
+        final long id;
+        final ByteBuffer data;
+        boolean dirty; // modified since it was read or last written
+
+        Page(long id, int pageSize) {
+            this.id = id;
+            data = ByteBuffer.allocate(pageSize);
+        }
+    } // ----------- end of nested Page class -----------
+
+    private final FileChannel channel;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final int pageSize;
+    private final int keySize, valueSize;
+    private final int maxLeaf; // maximum entries in a leaf
+    private final int maxInner; // maximum keys in an inner node
+    private final int leafValues; // offset of the first value slot of a leaf
+    private final int innerChildren; // offset of the first child slot of an inner node
+    private final LRUCache<Long, Page> cache;
+
+    // header state, written back by flush
+    private long root;
+    private int n;
+    private long pageCount; // pages in the file, including the header
+    private long freeHead; // first free page, or 0 for none
+    private boolean closed = false;
+
+    // set by insert when the node it was called on has split
+    private Page split; // the new right sibling
+    private K splitKey; // the separator to add to the parent
+
+    /**
+     * Opens the map stored in the given file, creating the file with default page
+     * and cache sizes if it does not exist, and ordering keys naturally.
+     *
+     * @param file            the file holding the map
+     * @param keySerializer   converts keys to and from bytes
+     * @param valueSerializer converts values to and from bytes
+     * @throws IOException              if the file cannot be read or created
+     * @throws IllegalArgumentException if the file holds a map of another layout
+     */
+    public DiskBPlusTreeMap(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer)
+            throws IOException, IllegalArgumentException {
+
+        this(file, keySerializer, valueSerializer, new DefaultComparator<K>(), DEFAULT_PAGE_SIZE, DEFAULT_CACHE_PAGES);
+    }
+
+    /**
+     * Opens the map stored in the given file, creating the file if it does not
+     * exist. An existing file must have been created with the same page size and
+     * serializer widths, and its keys are expected to be ordered by comp.
+     *
+     * @param file            the file holding the map
+     * @param keySerializer   converts keys to and from bytes
+     * @param valueSerializer converts values to and from bytes
+     * @param comp            comparator defining the order of keys in the map
+     * @param pageSize        size of a page in bytes
+     * @param cachePages      number of pages held in memory (at least 64)
+     * @throws IOException              if the file cannot be read or created
+     * @throws IllegalArgumentException if a page cannot hold at least two
+     *                                  entries, cachePages is too small, or the
+     *                                  file holds a map of another layout
+     */
+    public DiskBPlusTreeMap(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer, Comparator<K> comp,
+            int pageSize, int cachePages) throws IOException, IllegalArgumentException {
+
+        super(comp);
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.pageSize = pageSize;
+        keySize = keySerializer.size();
+        valueSize = valueSerializer.size();
+
+        // each node keeps one spare slot so that it may overflow before it is split
+        maxLeaf = (pageSize - LEAF_KEYS) / (keySize + valueSize) - 1;
+        maxInner = (pageSize - INNER_KEYS - Long.BYTES) / (keySize + Long.BYTES) - 1;
+        leafValues = LEAF_KEYS + (maxLeaf + 1) * keySize;
+        innerChildren = INNER_KEYS + (maxInner + 1) * keySize;
+
+        if (maxLeaf < 2 || maxInner < 2) {
+
+            throw new IllegalArgumentException("Page size " + pageSize + " is too small for the entries");
+        }
+
+        if (cachePages < MIN_CACHE_PAGES) {
+
+            throw new IllegalArgumentException("Page cache must hold at least " + MIN_CACHE_PAGES + " pages");
+        }
+
+        cache = new LRUCache<>(cachePages);
+        cache.setEvictionListener((id, page) -> writeBack(page));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        try {
+
+            if (channel.size() == 0) {
+
+                pageCount = 1; // just the header
+                Page leaf = allocate(LEAF);
+                root = leaf.id; // which is FIRST_LEAF
+                flush();
+            } else {
+
+                readHeader();
+            }
+        } catch (IOException | RuntimeException e) {
+
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Reads the header page into the fields, checking that the layout matches. */
+    private void readHeader() throws IOException, IllegalArgumentException {
+
+        ByteBuffer header = ByteBuffer.allocate(48);
+        channel.read(header, 0);
+
+        if (header.getInt(H_MAGIC) != MAGIC) {
+
+            throw new IllegalArgumentException("Not a B+ tree map file");
+        }
+
+        if (header.getInt(H_PAGE_SIZE) != pageSize || header.getInt(H_KEY_SIZE) != keySize
+                || header.getInt(H_VALUE_SIZE) != valueSize) {
+
+            throw new IllegalArgumentException("File was written with a different page size or serializers");
+        }
+
+        root = header.getLong(H_ROOT);
+        n = (int) header.getLong(H_SIZE);
+        pageCount = header.getLong(H_PAGE_COUNT);
+        freeHead = header.getLong(H_FREE);
+    }
+
+    /**
+     * Writes every modified page and the header to the file and forces them to
+     * the storage device.
+     *
+     * @throws UncheckedIOException  if the file cannot be written
+     * @throws IllegalStateException if the map has been closed
+     */
+    public void flush() throws UncheckedIOException, IllegalStateException {
+
+        checkOpen();
+
+        for (Entry<Long, Page> entry : cache.entrySet()) {
+
+            writeBack(entry.getValue());
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(48);
+        header.putInt(H_MAGIC, MAGIC);
+        header.putInt(H_PAGE_SIZE, pageSize);
+        header.putInt(H_KEY_SIZE, keySize);
+        header.putInt(H_VALUE_SIZE, valueSize);
+        header.putLong(H_ROOT, root);
+        header.putLong(H_SIZE, n);
+        header.putLong(H_PAGE_COUNT, pageCount);
+        header.putLong(H_FREE, freeHead);
+
+        try {
+
+            write(header, 0);
+            channel.force(false);
+        } catch (IOException e) {
+
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes the map and closes the file. Any later access to the map throws
+     * IllegalStateException.
+     *
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    @Override
+    public void close() throws UncheckedIOException {
+
+        if (closed) {
+
+            return;
+        }
+
+        try {
+
+            flush();
+        } finally {
+
+            closed = true;
+
+            try {
+
+                channel.close();
+            } catch (IOException e) {
+
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Throws IllegalStateException if the map has been closed. */
+    private void checkOpen() throws IllegalStateException {
+
+        if (closed) {
+
+            throw new IllegalStateException("Map has been closed");
+        }
+    }
+
+    // ---------- page cache ----------
+
+    /** Writes all of buffer to the file at the given position. */
+    private void write(ByteBuffer buffer, long position) throws IOException {
+
+        buffer.clear();
+
+        while (buffer.hasRemaining()) {
+
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /** Writes a page to the file if it has been modified. */
+    private void writeBack(Page page) throws UncheckedIOException {
+
+        if (page.dirty) {
+
+            try {
+
+                write(page.data, page.id * pageSize);
+            } catch (IOException e) {
+
+                throw new UncheckedIOException(e);
+            }
+
+            page.dirty = false;
+        }
+    }
+
+    /** Returns the page with the given id, reading it into the cache if needed. */
+    private Page page(long id) throws UncheckedIOException {
+
+        Page page = cache.get(id);
+
+        if (page == null) {
+
+            page = new Page(id, pageSize);
+            ByteBuffer data = page.data;
+
+            try {
+
+                long position = id * pageSize;
+
+                while (data.hasRemaining() && channel.read(data, position + data.position()) >= 0) {
+                    // keep reading until the page is full
+                }
+            } catch (IOException e) {
+
+                throw new UncheckedIOException(e);
+            }
+
+            cache.put(id, page);
+        }
+
+        return page;
+    }
+
+    /** Returns a new, empty node page of the given type, reusing a free page if there is one. */
+    private Page allocate(byte type) {
+
+        Page page;
+
+        if (freeHead != 0) {
+
+            page = page(freeHead);
+            freeHead = page.data.getLong(NEXT);
+            java.util.Arrays.fill(page.data.array(), (byte) 0);
+        } else {
+
+            page = new Page(pageCount++, pageSize);
+            cache.put(page.id, page);
+        }
+
+        page.data.put(0, type);
+        page.dirty = true;
+        return page;
+    }
+
+    /** Puts a page no longer in the tree on the free list. */
+    private void free(Page page) {
+
+        page.data.put(0, FREE);
+        page.data.putLong(NEXT, freeHead);
+        page.dirty = true;
+        freeHead = page.id;
+    }
+
+    // ---------- node accessors ----------
+
+    private static boolean isLeaf(Page page) {
+
+        return page.data.get(0) == LEAF;
+    }
+
+    private static int count(Page page) {
+
+        return page.data.getInt(COUNT);
+    }
+
+    private static void setCount(Page page, int count) {
+
+        page.data.putInt(COUNT, count);
+        page.dirty = true;
+    }
+
+    private int keyOffset(Page page, int i) {
+
+        return (isLeaf(page) ? LEAF_KEYS : INNER_KEYS) + i * keySize;
+    }
+
+    private int valueOffset(int i) {
+
+        return leafValues + i * valueSize;
+    }
+
+    private int childOffset(int i) {
+
+        return innerChildren + i * Long.BYTES;
+    }
+
+    private K key(Page page, int i) {
+
+        return keySerializer.read(page.data, keyOffset(page, i));
+    }
+
+    private void setKey(Page page, int i, K key) {
+
+        keySerializer.write(page.data, keyOffset(page, i), key);
+        page.dirty = true;
+    }
+
+    private V value(Page leaf, int i) {
+
+        return valueSerializer.read(leaf.data, valueOffset(i));
+    }
+
+    private void setValue(Page leaf, int i, V value) {
+
+        valueSerializer.write(leaf.data, valueOffset(i), value);
+        leaf.dirty = true;
+    }
+
+    private long child(Page inner, int i) {
+
+        return inner.data.getLong(childOffset(i));
+    }
+
+    private void setChild(Page inner, int i, long id) {
+
+        inner.data.putLong(childOffset(i), id);
+        inner.dirty = true;
+    }
+
+    /** Copies length bytes between two pages, or within one, at the given offsets. */
+    private static void copy(Page from, int fromOffset, Page to, int toOffset, int length) {
+
+        System.arraycopy(from.data.array(), fromOffset, to.data.array(), toOffset, length);
+        to.dirty = true;
+    }
+
+    /**
+     * Copies count slots, starting at slot i of from, to slot j of to: the keys,
+     * and the values of a leaf or the children of an inner node. The two may be
+     * the same page, with overlapping ranges.
+     */
+    private void copySlots(Page from, int i, Page to, int j, int count) {
+
+        copy(from, keyOffset(from, i), to, keyOffset(to, j), count * keySize);
+
+        if (isLeaf(from)) {
+
+            copy(from, valueOffset(i), to, valueOffset(j), count * valueSize);
+        }
+    }
+
+    /** Copies count children, starting at child i of from, to child j of to. */
+    private void copyChildren(Page from, int i, Page to, int j, int count) {
+
+        copy(from, childOffset(i), to, childOffset(j), count * Long.BYTES);
+    }
+
+    // ---------- search ----------
+
+    /**
+     * Returns the index of key in page, or -(insertion point) - 1 if it is absent.
+     */
+    private int search(Page page, K key) {
+
+        int low = 0;
+        int high = count(page) - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+            int compare = compare(key, key(page, mid));
+
+            if (compare > 0) {
+
+                low = mid + 1;
+            } else if (compare < 0) {
+
+                high = mid - 1;
+            } else {
+
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /** Returns the index of the child of an inner node whose subtree would hold key. */
+    private int childIndex(Page inner, K key) {
+
+        int i = search(inner, key);
+        return (i >= 0) ? i + 1 : -(i + 1);
+    }
+
+    /** Returns the leaf whose range of keys includes key. */
+    private Page findLeaf(K key) {
+
+        Page page = page(root);
+
+        while (!isLeaf(page)) {
+
+            page = page(child(page, childIndex(page, key)));
+        }
+
+        return page;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+
+        return n;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     * @throws UncheckedIOException  if the file cannot be read
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    public V get(K key) throws UncheckedIOException, IllegalStateException {
+
+        checkOpen();
+        Page leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return (i >= 0) ? value(leaf, i) : null;
+    }
+
+    // ---------- insertion ----------
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     * @throws UncheckedIOException  if the file cannot be read or written
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    public V put(K key, V value) throws UncheckedIOException, IllegalStateException {
+
+        checkOpen();
+        V answer = insert(page(root), key, value);
+
+        if (split != null) { // the root split, so the tree grows a level
+
+            Page newRoot = allocate(INNER);
+            setKey(newRoot, 0, splitKey);
+            setChild(newRoot, 0, root);
+            setChild(newRoot, 1, split.id);
+            setCount(newRoot, 1);
+            root = newRoot.id;
+            split = null;
+            splitKey = null;
+        }
+
+        return answer;
+    }
+
+    /**
+     * Inserts the entry into the subtree of page, returning any value it replaced.
+     * If page overflows it is split, and the new sibling and its separator are
+     * left in split and splitKey for the caller.
+     */
+    private V insert(Page page, K key, V value) {
+
+        if (isLeaf(page)) {
+
+            int i = search(page, key);
+
+            if (i >= 0) {
+
+                V old = value(page, i);
+                setValue(page, i, value);
+                return old;
+            }
+
+            i = -(i + 1);
+            int count = count(page);
+            copySlots(page, i, page, i + 1, count - i);
+            setKey(page, i, key);
+            setValue(page, i, value);
+            setCount(page, count + 1);
+            n++;
+
+            if (count + 1 > maxLeaf) {
+
+                splitLeaf(page);
+            }
+
+            return null;
+        }
+
+        int c = childIndex(page, key);
+        V answer = insert(page(child(page, c)), key, value);
+
+        if (split != null) { // the child split; add its new sibling to the right of it
+
+            int count = count(page);
+            copySlots(page, c, page, c + 1, count - c);
+            copyChildren(page, c + 1, page, c + 2, count - c);
+            setKey(page, c, splitKey);
+            setChild(page, c + 1, split.id);
+            setCount(page, count + 1);
+            split = null;
+            splitKey = null;
+
+            if (count + 1 > maxInner) {
+
+                splitInner(page);
+            }
+        }
+
+        return answer;
+    }
+
+    /** Moves the upper half of an overfull leaf into a new leaf linked after it. */
+    private void splitLeaf(Page leaf) {
+
+        int count = count(leaf);
+        int keep = (count + 1) / 2;
+        Page right = allocate(LEAF);
+        copySlots(leaf, keep, right, 0, count - keep);
+        setCount(right, count - keep);
+        setCount(leaf, keep);
+
+        long next = leaf.data.getLong(NEXT);
+        right.data.putLong(NEXT, next);
+        right.data.putLong(PREVIOUS, leaf.id);
+
+        if (next != 0) {
+
+            Page nextLeaf = page(next);
+            nextLeaf.data.putLong(PREVIOUS, right.id);
+            nextLeaf.dirty = true;
+        }
+
+        leaf.data.putLong(NEXT, right.id);
+        split = right;
+        splitKey = key(right, 0);
+    }
+
+    /**
+     * Moves the keys and children above the middle key of an overfull inner node
+     * into a new node; the middle key moves up to the parent.
+     */
+    private void splitInner(Page inner) {
+
+        int count = count(inner);
+        int mid = count / 2;
+        Page right = allocate(INNER);
+        copySlots(inner, mid + 1, right, 0, count - mid - 1);
+        copyChildren(inner, mid + 1, right, 0, count - mid);
+        setCount(right, count - mid - 1);
+        split = right;
+        splitKey = key(inner, mid);
+        setCount(inner, mid);
+    }
+
+    // ---------- removal ----------
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     * @throws UncheckedIOException  if the file cannot be read or written
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    public V remove(K key) throws UncheckedIOException, IllegalStateException {
+
+        checkOpen();
+        Page rootPage = page(root);
+        V answer = delete(rootPage, key);
+
+        if (!isLeaf(rootPage) && count(rootPage) == 0) { // the root lost its last separator
+
+            root = child(rootPage, 0);
+            free(rootPage);
+        }
+
+        return answer;
+    }
+
+    /**
+     * Removes key from the subtree of page and restores the minimum size of any
+     * child that fell below it.
+     */
+    private V delete(Page page, K key) {
+
+        if (isLeaf(page)) {
+
+            int i = search(page, key);
+
+            if (i < 0) {
+
+                return null;
+            }
+
+            V old = value(page, i);
+            int count = count(page);
+            copySlots(page, i + 1, page, i, count - i - 1);
+            setCount(page, count - 1);
+            n--;
+            return old;
+        }
+
+        int c = childIndex(page, key);
+        Page child = page(child(page, c));
+        V answer = delete(child, key);
+
+        if (count(child) < minimum(child)) {
+
+            rebalance(page, c);
+        }
+
+        return answer;
+    }
+
+    /** Returns the minimum number of keys of a node other than the root. */
+    private int minimum(Page page) {
+
+        return isLeaf(page) ? maxLeaf / 2 : maxInner / 2;
+    }
+
+    /**
+     * Restores the minimum size of child c of parent by borrowing an entry from a
+     * sibling that can spare one, or else by merging with a sibling.
+     */
+    private void rebalance(Page parent, int c) {
+
+        Page child = page(child(parent, c));
+        Page left = (c > 0) ? page(child(parent, c - 1)) : null;
+        Page right = (c < count(parent)) ? page(child(parent, c + 1)) : null;
+        int min = minimum(child);
+
+        if (left != null && count(left) > min) {
+
+            borrowFromLeft(parent, c, left, child);
+        } else if (right != null && count(right) > min) {
+
+            borrowFromRight(parent, c, child, right);
+        } else if (left != null) {
+
+            merge(parent, c - 1, left, child);
+        } else {
+
+            merge(parent, c, child, right);
+        }
+    }
+
+    /** Moves the last entry of child c - 1, left, to the front of child c. */
+    private void borrowFromLeft(Page parent, int c, Page left, Page child) {
+
+        int count = count(child);
+        int last = count(left) - 1;
+        copySlots(child, 0, child, 1, count);
+
+        if (isLeaf(child)) {
+
+            copySlots(left, last, child, 0, 1);
+            setKey(parent, c - 1, key(child, 0));
+        } else {
+
+            // the separator comes down and the last key of the sibling goes up
+            copyChildren(child, 0, child, 1, count + 1);
+            setKey(child, 0, key(parent, c - 1));
+            setChild(child, 0, child(left, last + 1));
+            setKey(parent, c - 1, key(left, last));
+        }
+
+        setCount(left, last);
+        setCount(child, count + 1);
+    }
+
+    /** Moves the first entry of child c + 1, right, to the end of child c. */
+    private void borrowFromRight(Page parent, int c, Page child, Page right) {
+
+        int count = count(child);
+        int rightCount = count(right);
+
+        if (isLeaf(child)) {
+
+            copySlots(right, 0, child, count, 1);
+            copySlots(right, 1, right, 0, rightCount - 1);
+            setKey(parent, c, key(right, 0));
+        } else {
+
+            // the separator comes down and the first key of the sibling goes up
+            setKey(child, count, key(parent, c));
+            setChild(child, count + 1, child(right, 0));
+            setKey(parent, c, key(right, 0));
+            copySlots(right, 1, right, 0, rightCount - 1);
+            copyChildren(right, 1, right, 0, rightCount);
+        }
+
+        setCount(right, rightCount - 1);
+        setCount(child, count + 1);
+    }
+
+    /**
+     * Merges child i + 1 of parent, right, into child i, left, frees the page of
+     * right and removes separator i from the parent.
+     */
+    private void merge(Page parent, int i, Page left, Page right) {
+
+        int count = count(left);
+        int rightCount = count(right);
+
+        if (isLeaf(left)) {
+
+            copySlots(right, 0, left, count, rightCount);
+            setCount(left, count + rightCount);
+            long next = right.data.getLong(NEXT);
+            left.data.putLong(NEXT, next);
+
+            if (next != 0) {
+
+                Page nextLeaf = page(next);
+                nextLeaf.data.putLong(PREVIOUS, left.id);
+                nextLeaf.dirty = true;
+            }
+        } else {
+
+            // the separator comes down between the two halves
+            setKey(left, count, key(parent, i));
+            copySlots(right, 0, left, count + 1, rightCount);
+            copyChildren(right, 0, left, count + 1, rightCount + 1);
+            setCount(left, count + 1 + rightCount);
+        }
+
+        int parentCount = count(parent);
+        copySlots(parent, i + 1, parent, i, parentCount - i - 1);
+        copyChildren(parent, i + 2, parent, i + 1, parentCount - i - 1);
+        setCount(parent, parentCount - 1);
+        free(right);
+    }
+
+    // ---------- navigation ----------
+
+    /** Returns a snapshot of the entry at index i of a leaf. */
+    private Entry<K, V> entry(Page leaf, int i) {
+
+        return new MapEntry<>(key(leaf, i), value(leaf, i));
+    }
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    public Entry<K, V> firstEntry() throws IllegalStateException {
+
+        checkOpen();
+        return (n == 0) ? null : entry(page(FIRST_LEAF), 0);
+    }
+
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    public Entry<K, V> lastEntry() throws IllegalStateException {
+
+        checkOpen();
+
+        if (n == 0) {
+
+            return null;
+        }
+
+        Page page = page(root);
+
+        while (!isLeaf(page)) {
+
+            page = page(child(page, count(page)));
+        }
+
+        return entry(page, count(page) - 1);
+    }
+
+    /**
+     * Returns an iterator positioned at the least key greater than key, or equal
+     * to it if inclusive is true, stopping before toKey (null for no bound).
+     */
+    private EntryIterator iterator(K key, boolean inclusive, K toKey) {
+
+        Page leaf = findLeaf(key);
+        int i = search(leaf, key);
+
+        if (i < 0) {
+
+            i = -(i + 1);
+        } else if (!inclusive) {
+
+            i++;
+        }
+
+        return new EntryIterator(leaf, i, toKey);
+    }
+
+    /**
+     * Returns the entry with the greatest key less than key, or equal to it if
+     * inclusive is true (or null if no such entry exists).
+     */
+    private Entry<K, V> floor(K key, boolean inclusive) {
+
+        Page leaf = findLeaf(key);
+        int i = search(leaf, key);
+
+        if (i >= 0 && inclusive) {
+
+            return entry(leaf, i);
+        }
+
+        i = ((i >= 0) ? i : -(i + 1)) - 1;
+
+        if (i < 0) { // everything in this leaf is greater; the floor ends the previous one
+
+            long previous = leaf.data.getLong(PREVIOUS);
+
+            if (previous == 0) {
+
+                return null;
+            }
+
+            leaf = page(previous);
+            i = count(leaf) - 1;
+        }
+
+        return entry(leaf, i);
+    }
+
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     * @throws IllegalStateException    if the map has been closed
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException, IllegalStateException {
+
+        checkOpen();
+        checkKey(key);
+        EntryIterator iterator = iterator(key, true, null);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     * @throws IllegalStateException    if the map has been closed
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException, IllegalStateException {
+
+        checkOpen();
+        checkKey(key);
+        return floor(key, true);
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     * @throws IllegalStateException    if the map has been closed
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException, IllegalStateException {
+
+        checkOpen();
+        checkKey(key);
+        return floor(key, false);
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     * @throws IllegalStateException    if the map has been closed
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException, IllegalStateException {
+
+        checkOpen();
+        checkKey(key);
+        EntryIterator iterator = iterator(key, false, null);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    /**
+     * Reads the entries in key order from a position in a leaf onwards, following
+     * the leaf links, and stops before the first key that is not less than toKey
+     * (if any). The map should not be modified during the iteration.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Page leaf; // leaf of the next entry, or null at the end
+        private int index; // index of the next entry in leaf
+        private final K toKey; // exclusive upper bound, or null for none
+
+        EntryIterator(Page leaf, int index, K toKey) {
+
+            this.leaf = leaf;
+            this.index = index;
+            this.toKey = toKey;
+            skipExhaustedLeaf();
+        }
+
+        /** Moves on to the next leaf once every entry of this one has been read. */
+        private void skipExhaustedLeaf() {
+
+            if (leaf != null && index >= count(leaf)) {
+
+                long next = leaf.data.getLong(NEXT);
+                leaf = (next == 0) ? null : page(next);
+                index = 0;
+            }
+        }
+
+        public boolean hasNext() {
+
+            checkOpen();
+            return leaf != null && (toKey == null || compare(key(leaf, index), toKey) < 0);
+        }
+
+        public Entry<K, V> next() {
+
+            if (!hasNext()) {
+
+                throw new NoSuchElementException("No more entries");
+            }
+
+            Entry<K, V> answer = entry(leaf, index++);
+            skipExhaustedLeaf();
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    // ---------------- nested EntryIterable class ----------------
+    /**
+     * The entries from fromKey inclusive to toKey exclusive; a null bound leaves
+     * the range open on that side.
+     */
+    private class EntryIterable implements Iterable<Entry<K, V>> {
+        private final K fromKey;
+        private final K toKey;
+
+        EntryIterable(K fromKey, K toKey) {
+
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        public Iterator<Entry<K, V>> iterator() {
+
+            checkOpen();
+            return (fromKey == null) ? new EntryIterator(page(FIRST_LEAF), 0, toKey)
+                    : DiskBPlusTreeMap.this.iterator(fromKey, true, toKey);
+        }
+
+        public String toString() {
+
+            StringBuilder sb = new StringBuilder("[");
+
+            for (Entry<K, V> entry : this) {
+
+                sb.append(sb.length() > 1 ? ", " : "").append(entry);
+            }
+
+            return sb.append("]").toString();
+        }
+    } // ----------- end of nested EntryIterable class -----------
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map, in key
+     * order, read from the leaves as the iteration proceeds.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+
+        return new EntryIterable(null, null);
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive. The first
+     * entry is found in O(log n) time when iteration starts and the rest are read
+     * from the linked leaves.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+
+        checkKey(fromKey);
+        checkKey(toKey);
+        return new EntryIterable(fromKey, toKey);
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Path file = (args.length > 0) ? Paths.get(args[0]) : Files.createTempFile("bplustree", ".db");
+
+        try (DiskBPlusTreeMap<Long, Double> m = new DiskBPlusTreeMap<>(file, Serializer.LONG, Serializer.DOUBLE)) {
+
+            for (long i = m.size(); i < 100000; i++) {
+
+                m.put(i * i, Math.sqrt(i));
+            }
+
+            System.out.println("size: " + m.size());
+        }
+
+        try (DiskBPlusTreeMap<Long, Double> m = new DiskBPlusTreeMap<>(file, Serializer.LONG, Serializer.DOUBLE)) {
+
+            System.out.println("reopened, size: " + m.size());
+            System.out.println("m.get(49): " + m.get(49L));
+            System.out.println("m.ceilingEntry(50): " + m.ceilingEntry(50L));
+            System.out.println("m.subMap(10, 100): " + m.subMap(10L, 100L));
+        }
+
+        System.out.println("file: " + file + ", " + Files.size(file) + " bytes");
+    }
+
+}
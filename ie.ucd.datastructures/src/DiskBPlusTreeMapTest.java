@@ -0,0 +1,170 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DiskBPlusTreeMapTest {
+
+	@TempDir
+	Path dir;
+
+	private DiskBPlusTreeMap<Integer, Integer> open(Path file, int pageSize) throws IOException {
+		return new DiskBPlusTreeMap<>(file, Serializer.INTEGER, Serializer.INTEGER, new DefaultComparator<Integer>(),
+				pageSize, 64);
+	}
+
+	@Test
+	void testPutGet() throws IOException {
+		try (DiskBPlusTreeMap<Integer, Integer> map = open(dir.resolve("map.db"), 64)) {
+			Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+			for(Integer i : arr) {
+				assertEquals(null, map.put(i, i * 10));
+			}
+			assertEquals(12, map.size());
+			assertEquals(150, map.get(15));
+			assertEquals(null, map.get(-1));
+			assertEquals(150, map.put(15, 15));
+			assertEquals(15, map.get(15));
+			assertEquals(12, map.size());
+			assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.toString());
+		}
+	}
+
+	@Test
+	void testLayout() throws IOException {
+		Path file = dir.resolve("map.db");
+		assertThrows(IllegalArgumentException.class, () -> open(file, 32));
+		assertThrows(IllegalArgumentException.class, () -> new DiskBPlusTreeMap<>(file, Serializer.INTEGER,
+				Serializer.INTEGER, new DefaultComparator<Integer>(), 4096, 8));
+		open(file, 64).close();
+		assertThrows(IllegalArgumentException.class, () -> open(file, 128));
+		assertThrows(IllegalArgumentException.class,
+				() -> new DiskBPlusTreeMap<>(file, Serializer.LONG, Serializer.INTEGER));
+
+		Path other = dir.resolve("other.db");
+		Files.write(other, new byte[4096]);
+		assertThrows(IllegalArgumentException.class, () -> open(other, 64));
+	}
+
+	@Test
+	void testNavigation() throws IOException {
+		try (DiskBPlusTreeMap<Integer, Integer> map = open(dir.resolve("map.db"), 64)) {
+			assertEquals(null, map.firstEntry());
+			assertEquals(null, map.lastEntry());
+			assertEquals(null, map.ceilingEntry(1));
+
+			for (int i = 0; i < 100; i += 10) {
+				map.put(i, i);
+			}
+			assertEquals(0, map.firstEntry().getKey());
+			assertEquals(90, map.lastEntry().getKey());
+			assertEquals(20, map.ceilingEntry(20).getKey());
+			assertEquals(30, map.ceilingEntry(21).getKey());
+			assertEquals(null, map.ceilingEntry(91));
+			assertEquals(20, map.floorEntry(20).getKey());
+			assertEquals(20, map.floorEntry(29).getKey());
+			assertEquals(null, map.floorEntry(-1));
+			assertEquals(10, map.lowerEntry(20).getKey());
+			assertEquals(null, map.lowerEntry(0));
+			assertEquals(30, map.higherEntry(20).getKey());
+			assertEquals(null, map.higherEntry(90));
+			assertEquals("[20, 30, 40]", map.subMap(20, 50).toString());
+			assertEquals("[20, 30, 40]", map.subMap(11, 41).toString());
+			assertEquals("[]", map.subMap(41, 49).toString());
+		}
+	}
+
+	@Test
+	void testReopen() throws IOException {
+		Path file = dir.resolve("map.db");
+		DiskBPlusTreeMap<Integer, Integer> map = open(file, 128);
+
+		for (int i = 0; i < 10000; i++) {
+			map.put(i, -i);
+		}
+		for (int i = 0; i < 10000; i += 2) {
+			map.remove(i);
+		}
+		map.close();
+		assertThrows(IllegalStateException.class, () -> map.get(1));
+		long length = Files.size(file);
+
+		try (DiskBPlusTreeMap<Integer, Integer> reopened = open(file, 128)) {
+			assertEquals(5000, reopened.size());
+			assertEquals(-4321, reopened.get(4321));
+			assertEquals(null, reopened.get(4320));
+			assertEquals(1, reopened.firstEntry().getKey());
+			assertEquals(9999, reopened.lastEntry().getKey());
+			assertEquals("[101, 103, 105]", reopened.subMap(100, 106).toString());
+
+			// the pages freed by the removals are reused before the file grows
+			for (int i = 0; i < 10000; i += 2) {
+				reopened.put(i, -i);
+			}
+			assertEquals(10000, reopened.size());
+			reopened.flush();
+			assertEquals(length, Files.size(file));
+		}
+	}
+
+	@Test
+	void testRandomOperations() throws IOException {
+		for (int pageSize : new int[] { 64, 96, 4096 }) {
+			Path file = dir.resolve("map" + pageSize + ".db");
+			DiskBPlusTreeMap<Integer, Integer> map = open(file, pageSize);
+			java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+			java.util.Random rnd = new java.util.Random(pageSize);
+
+			for (int i = 0; i < 30000; ++i) {
+				int k = rnd.nextInt(2000);
+				if (rnd.nextInt(5) < 3) {
+					assertEquals(expected.put(k, i), map.put(k, i));
+				} else {
+					assertEquals(expected.remove(k), map.remove(k));
+				}
+				int probe = rnd.nextInt(2100) - 50;
+				assertEquals(expected.get(probe), map.get(probe));
+				assertEquals(expected.ceilingKey(probe), keyOf(map.ceilingEntry(probe)));
+				assertEquals(expected.floorKey(probe), keyOf(map.floorEntry(probe)));
+				assertEquals(expected.lowerKey(probe), keyOf(map.lowerEntry(probe)));
+				assertEquals(expected.higherKey(probe), keyOf(map.higherEntry(probe)));
+
+				if (i % 10000 == 9999) { // carry on with the map read back from the file
+					map.close();
+					map = open(file, pageSize);
+				}
+			}
+			assertEquals(expected.size(), map.size());
+			assertEquals(expected.keySet().toString(), map.keySet().toString());
+			assertEquals(expected.subMap(500, 700).keySet().toString(), keysOf(map.subMap(500, 700)));
+
+			for (int k = 0; k < 2000; k++) {
+				assertEquals(expected.remove(k), map.remove(k));
+			}
+			assertEquals(0, map.size());
+			assertEquals(null, map.firstEntry());
+			assertEquals("[]", map.toString());
+			map.close();
+		}
+	}
+
+	private static String keysOf(Iterable<Entry<Integer, Integer>> entries) {
+		ArrayList<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> entry : entries) {
+			keys.add(entry.getKey());
+		}
+		return keys.toString();
+	}
+
+	private static Integer keyOf(Entry<Integer, Integer> entry) {
+		return (entry == null) ? null : entry.getKey();
+	}
+
+}
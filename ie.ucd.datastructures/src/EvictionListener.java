@@ -0,0 +1,14 @@
+/**
+ * Interface for being notified when a cache evicts an entry to stay within its
+ * capacity. Entries removed explicitly through remove() are not reported.
+ */
+public interface EvictionListener<K, V> {
+
+    /**
+     * Called after the entry with the given key and value has been evicted.
+     *
+     * @param key   the key of the evicted entry
+     * @param value the value of the evicted entry
+     */
+    void onEviction(K key, V value);
+}
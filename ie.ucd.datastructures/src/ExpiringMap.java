@@ -0,0 +1,457 @@
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A map whose entries expire a fixed time-to-live after they were last written.
+ * <p>
+ * The entries are stored in a backing map, which may be any Map
+ * implementation, such as a ChainHashMap or a TreeMap. Expiration times are
+ * additionally indexed by a hierarchical timing wheel: each level of the wheel
+ * is an array of buckets covering consecutive time spans, from about a second
+ * per bucket at the lowest level to several days at the highest, and each
+ * bucket is a circularly linked list of entries with a sentinel node, as in
+ * CircularlyLinkedList. Scheduling or cancelling an entry takes O(1) time.
+ * <p>
+ * Nothing runs in the background. An entry found to have expired when it is
+ * read is removed on the spot, and every write advances the wheel to the
+ * current time: the buckets it passes over are emptied, their expired entries
+ * are removed and the others, which were filed in a coarser bucket, are filed
+ * again in a finer one. Each entry is thus handled a bounded number of times,
+ * so expiration costs amortized O(1) per entry.
+ */
+public class ExpiringMap<K, V> extends AbstractMap<K, V> {
+
+    /** Number of buckets on each level of the wheel; powers of two. */
+    private static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+
+    /**
+     * Number of low bits dropped to turn a time into a tick on each level, so a
+     * bucket on level i spans 2^SHIFT[i] nanoseconds.
+     */
+    private static final int[] SHIFT = new int[BUCKETS.length];
+
+    /**
+     * Time span, in nanoseconds, of one bucket on each level, followed by the
+     * reach of the whole wheel. A bucket spans all the buckets of the level
+     * below, giving 1.07s, 1.14m, 1.22h, 1.63d and 6.52d.
+     */
+    private static final long[] SPANS = new long[BUCKETS.length + 1];
+
+    static {
+        SHIFT[0] = 30;
+        SPANS[0] = 1L << SHIFT[0];
+
+        for (int i = 0; i < BUCKETS.length; i++) {
+            SPANS[i + 1] = (long) BUCKETS[i] << SHIFT[i];
+
+            if (i + 1 < BUCKETS.length) {
+                SHIFT[i + 1] = Long.numberOfTrailingZeros(SPANS[i + 1]);
+            }
+        }
+    }
+
+    // ---------------- nested Node class ----------------
+    /**
+     * An entry of the map, which is also a node of the circular list forming
+     * its bucket of the timing wheel.
+     */
+    protected static class Node<K, V> extends MapEntry<K, V> {
+        private long expiry; // time at which the entry expires
+        private Node<K, V> previous = this; // neighbours within the bucket
+        private Node<K, V> next = this;
+
+        public Node(K key, V value) {
+            super(key, value);
+        }
+    } // ----------- end of nested Node class -----------
+
+    private final Map<K, Entry<K, V>> backing; // holds the nodes
+    private final Node<K, V>[][] wheel; // sentinels of the buckets, per level
+    private final long ttl; // default time-to-live in nanoseconds
+    private final LongSupplier clock; // current time in nanoseconds
+    private long time; // time the wheel was last advanced to
+    private EvictionListener<K, V> listener; // may be null
+
+    /**
+     * Creates a map backed by a ChainHashMap whose entries expire after the given
+     * time-to-live.
+     *
+     * @param ttl  the time-to-live
+     * @param unit the unit of ttl
+     * @throws IllegalArgumentException if ttl is not positive
+     */
+    public ExpiringMap(long ttl, TimeUnit unit) throws IllegalArgumentException {
+
+        this(new ChainHashMap<>(), ttl, unit);
+    }
+
+    /**
+     * Creates a map storing its entries in the given, empty, backing map whose
+     * entries expire after the given time-to-live.
+     *
+     * @param backing the map holding the entries
+     * @param ttl     the time-to-live
+     * @param unit    the unit of ttl
+     * @throws IllegalArgumentException if ttl is not positive or backing is not
+     *                                  empty
+     */
+    public ExpiringMap(Map<K, Entry<K, V>> backing, long ttl, TimeUnit unit) throws IllegalArgumentException {
+
+        this(backing, ttl, unit, System::nanoTime);
+    }
+
+    /**
+     * Creates a map as above, reading the time from the given clock.
+     *
+     * @param backing the map holding the entries
+     * @param ttl     the time-to-live
+     * @param unit    the unit of ttl
+     * @param clock   supplies the current time in nanoseconds
+     * @throws IllegalArgumentException if ttl is not positive or backing is not
+     *                                  empty
+     */
+    @SuppressWarnings({ "unchecked" })
+    public ExpiringMap(Map<K, Entry<K, V>> backing, long ttl, TimeUnit unit, LongSupplier clock)
+            throws IllegalArgumentException {
+
+        if (ttl <= 0) {
+
+            throw new IllegalArgumentException("Time-to-live must be positive");
+        }
+
+        if (!backing.isEmpty()) {
+
+            throw new IllegalArgumentException("Backing map must be empty");
+        }
+
+        this.backing = backing;
+        this.ttl = unit.toNanos(ttl);
+        this.clock = clock;
+        time = clock.getAsLong();
+        wheel = new Node[BUCKETS.length][];
+
+        for (int i = 0; i < BUCKETS.length; i++) {
+
+            wheel[i] = new Node[BUCKETS[i]];
+
+            for (int j = 0; j < BUCKETS[i]; j++) {
+
+                wheel[i][j] = new Node<>(null, null);
+            }
+        }
+    }
+
+    /**
+     * Sets the listener to be notified of every entry removed because it
+     * expired, replacing any previous one.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the number of entries in the map. Entries that expired within the
+     * last second may still be counted until the wheel passes their bucket.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+
+        advance(clock.getAsLong());
+        return backing.size();
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists or it has expired.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) {
+
+        Node<K, V> node = (Node<K, V>) backing.get(key);
+
+        if (node == null) {
+
+            return null;
+        }
+
+        if (node.expiry - clock.getAsLong() <= 0) {
+
+            expire(node);
+            return null;
+        }
+
+        return node.getValue();
+    }
+
+    /**
+     * Associates the given value with the given key, which expires after the
+     * default time-to-live.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @Override
+    public V put(K key, V value) {
+
+        return put(key, value, ttl, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Associates the given value with the given key, which expires after the
+     * given time-to-live.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @param ttl   the time-to-live of this entry
+     * @param unit  the unit of ttl
+     * @return the previous value associated with the key (or null, if no such
+     *         entry or it had expired)
+     * @throws IllegalArgumentException if ttl is not positive
+     */
+    public V put(K key, V value, long ttl, TimeUnit unit) throws IllegalArgumentException {
+
+        if (ttl <= 0) {
+
+            throw new IllegalArgumentException("Time-to-live must be positive");
+        }
+
+        long now = clock.getAsLong();
+        advance(now);
+        Node<K, V> node = (Node<K, V>) backing.get(key);
+        V answer = null;
+
+        if (node == null) {
+
+            node = new Node<>(key, value);
+            backing.put(key, node);
+        } else {
+
+            unlink(node);
+            V previousValue = node.setValue(value);
+
+            if (node.expiry - now > 0) {
+
+                answer = previousValue;
+            }
+        }
+
+        node.expiry = now + unit.toNanos(ttl);
+        schedule(node);
+        return answer;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists or it had expired
+     */
+    @Override
+    public V remove(K key) {
+
+        Node<K, V> node = (Node<K, V>) backing.remove(key);
+
+        if (node == null) {
+
+            return null;
+        }
+
+        unlink(node);
+        return (node.expiry - clock.getAsLong() > 0) ? node.getValue() : null;
+    }
+
+    /**
+     * Removes every entry whose bucket the wheel has passed by the current time.
+     */
+    public void cleanUp() {
+
+        advance(clock.getAsLong());
+    }
+
+    /** Removes an expired node from the map and the wheel. */
+    private void expire(Node<K, V> node) {
+
+        backing.remove(node.getKey());
+        unlink(node);
+
+        if (listener != null) {
+
+            listener.onEviction(node.getKey(), node.getValue());
+        }
+    }
+
+    /** Files node in the bucket covering its expiry time. */
+    private void schedule(Node<K, V> node) {
+
+        Node<K, V> sentinel = findBucket(node.expiry);
+        node.previous = sentinel.previous;
+        node.next = sentinel;
+        sentinel.previous.next = node;
+        sentinel.previous = node;
+    }
+
+    /** Detaches node from its bucket. */
+    private void unlink(Node<K, V> node) {
+
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        node.previous = node;
+        node.next = node;
+    }
+
+    /**
+     * Returns the number of non-empty buckets on a level of the timing wheel,
+     * for testing and diagnostics.
+     *
+     * @param level the level, from 0 for the finest buckets
+     * @return the number of buckets on that level holding at least one entry
+     */
+    protected int occupiedBuckets(int level) {
+
+        int count = 0;
+
+        for (Node<K, V> sentinel : wheel[level]) {
+
+            if (sentinel.next != sentinel) {
+
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the sentinel of the bucket for the given expiry time: the lowest
+     * level whose buckets, taken together, reach that far ahead.
+     */
+    private Node<K, V> findBucket(long expiry) {
+
+        long duration = expiry - time;
+
+        for (int i = 0; i < wheel.length - 1; i++) {
+
+            if (duration < SPANS[i + 1]) {
+
+                long ticks = expiry >> SHIFT[i];
+                return wheel[i][(int) ticks & (BUCKETS[i] - 1)];
+            }
+        }
+
+        return wheel[wheel.length - 1][0];
+    }
+
+    /**
+     * Advances the wheel to the given time, emptying every bucket the time has
+     * moved past on each level.
+     */
+    private void advance(long now) {
+
+        long previous = time;
+        time = now;
+
+        for (int i = 0; i < SHIFT.length; i++) {
+
+            long previousTicks = previous >> SHIFT[i];
+            long delta = (now >> SHIFT[i]) - previousTicks;
+
+            if (delta <= 0) {
+
+                break; // higher levels tick even more slowly
+            }
+
+            int steps = (int) Math.min(delta + 1, BUCKETS[i]);
+
+            for (int j = 0; j < steps; j++) {
+
+                int index = (int) ((previousTicks + j) & (BUCKETS[i] - 1));
+                expireBucket(wheel[i][index]);
+            }
+        }
+    }
+
+    /**
+     * Empties the bucket with the given sentinel, removing the nodes that have
+     * expired and rescheduling the rest.
+     */
+    private void expireBucket(Node<K, V> sentinel) {
+
+        Node<K, V> node = sentinel.next;
+        sentinel.next = sentinel;
+        sentinel.previous = sentinel;
+
+        while (node != sentinel) {
+
+            Node<K, V> next = node.next;
+            node.previous = node;
+            node.next = node;
+
+            if (node.expiry - time <= 0) {
+
+                expire(node);
+            } else {
+
+                schedule(node);
+            }
+
+            node = next;
+        }
+    }
+
+    /**
+     * Returns an iterable collection of the unexpired key-value entries of the
+     * map, in the order of the backing map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+
+        long now = clock.getAsLong();
+        ArrayList<Entry<K, V>> temporary = new ArrayList<>();
+
+        for (Entry<K, V> entry : backing.values()) {
+
+            if (((Node<K, V>) entry).expiry - now > 0) {
+
+                temporary.add(entry);
+            }
+        }
+
+        return temporary;
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+    public static void main(String[] args) {
+
+        long[] now = { 0 };
+        ExpiringMap<String, Integer> m = new ExpiringMap<>(new TreeMap<>(), 10, TimeUnit.SECONDS, () -> now[0]);
+        m.setEvictionListener((k, v) -> System.out.println("expired " + k + "=" + v));
+        m.put("a", 1);
+        m.put("b", 2, 1, TimeUnit.MINUTES);
+        now[0] = TimeUnit.SECONDS.toNanos(5);
+        m.put("c", 3);
+        System.out.println("m: " + m);
+        now[0] = TimeUnit.SECONDS.toNanos(20);
+        m.cleanUp();
+        System.out.println("m: " + m);
+    }
+
+}
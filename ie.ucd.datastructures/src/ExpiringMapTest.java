@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiringMapTest {
+
+	private long now = 0;
+
+	private void sleep(long seconds) {
+		now += TimeUnit.SECONDS.toNanos(seconds);
+	}
+
+	@Test
+	void testExpiresOnRead() {
+		ExpiringMap<Integer, String> map = new ExpiringMap<Integer, String>(new ChainHashMap<>(), 10, TimeUnit.SECONDS, () -> now);
+		map.put(1, "1");
+		sleep(9);
+		assertEquals("1", map.get(1));
+		sleep(1);
+		assertNull(map.get(1));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void testPutRenews() {
+		ExpiringMap<Integer, String> map = new ExpiringMap<Integer, String>(new ChainHashMap<>(), 10, TimeUnit.SECONDS, () -> now);
+		map.put(1, "1");
+		sleep(8);
+		assertEquals("1", map.put(1, "one"));
+		sleep(8);
+		assertEquals("one", map.get(1));
+		sleep(8);
+		assertNull(map.put(1, "uno"));
+	}
+
+	@Test
+	void testExpiresOnWrite() {
+		ExpiringMap<Integer, Integer> map = new ExpiringMap<Integer, Integer>(new ChainHashMap<>(), 5, TimeUnit.SECONDS, () -> now);
+		ArrayList<Integer> expired = new ArrayList<>();
+		map.setEvictionListener((k, v) -> expired.add(k));
+
+		for (int i = 0; i < 100; i++) {
+			map.put(i, i);
+			sleep(1);
+		}
+		// keys 96..99 were written less than five seconds ago; the wheel sweeps in
+		// ticks of about a second, so an entry may outlive its expiry by that much
+		map.cleanUp();
+		assertTrue(expired.size() >= 94);
+		assertEquals(100, expired.size() + map.size());
+		ArrayList<Integer> live = new ArrayList<>();
+		for (Integer k : map.keySet()) {
+			live.add(k);
+		}
+		live.sort(null);
+		assertEquals("[96, 97, 98, 99]", live.toString());
+	}
+
+	@Test
+	void testLongTimeToLive() {
+		ExpiringMap<String, Integer> map = new ExpiringMap<String, Integer>(new TreeMap<>(), 1, TimeUnit.DAYS, () -> now);
+		map.put("a", 1);
+		map.put("b", 2, 2, TimeUnit.HOURS);
+		map.put("c", 3, 20, TimeUnit.DAYS);
+
+		for (int hour = 0; hour < 30; hour++) {
+			sleep(3600);
+			map.cleanUp();
+			assertEquals(hour < 1 ? 3 : hour < 23 ? 2 : 1, map.size(), "after " + (hour + 1) + "h");
+		}
+		sleep(TimeUnit.DAYS.toSeconds(19));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void testEveryLevelTwoBucket() {
+		// level 2 has 32 buckets of 2^42ns and holds durations from 2^42ns to 2^47ns;
+		// starting just before a tick boundary, these expiries fall in all 32 of them
+		long tick = 1L << 42;
+		now = tick - (1L << 30);
+		ExpiringMap<Integer, Long> map = new ExpiringMap<Integer, Long>(new ChainHashMap<>(), 1, TimeUnit.SECONDS, () -> now);
+		ArrayList<Integer> expired = new ArrayList<>();
+		map.setEvictionListener((k, v) -> expired.add(k));
+		long[] expiry = new long[32];
+
+		for (int k = 0; k < 32; k++) {
+			long ttl = (k == 0) ? tick : k * tick + tick / 2;
+			expiry[k] = now + ttl;
+			map.put(k, expiry[k], ttl, TimeUnit.NANOSECONDS);
+		}
+		assertEquals(32, map.occupiedBuckets(2));
+		assertEquals(0, map.occupiedBuckets(3));
+
+		// the wheel may hold an entry back by up to a level-0 tick of 2^30ns
+		long end = expiry[31] + tick;
+		while (now < end) {
+			now += tick / 8;
+			map.cleanUp();
+			for (int k = 0; k < 32; k++) {
+				if (expired.contains(k)) {
+					assertTrue(expiry[k] <= now, "key " + k + " expired early");
+				} else {
+					assertTrue(expiry[k] > now - (1L << 31), "key " + k + " expired late");
+				}
+			}
+		}
+		assertEquals(0, map.size());
+		for (int k = 0; k < 32; k++) {
+			assertEquals(k, expired.get(k));
+		}
+	}
+
+	@Test
+	void testRemove() {
+		ExpiringMap<Integer, String> map = new ExpiringMap<Integer, String>(new ChainHashMap<>(), 10, TimeUnit.SECONDS, () -> now);
+		map.put(1, "1");
+		map.put(2, "2");
+		assertEquals("1", map.remove(1));
+		assertNull(map.remove(1));
+		sleep(11);
+		assertNull(map.remove(2));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new ExpiringMap<Integer, Integer>(0, TimeUnit.SECONDS));
+		ExpiringMap<Integer, Integer> map = new ExpiringMap<Integer, Integer>(1, TimeUnit.SECONDS);
+		assertThrows(IllegalArgumentException.class, () -> map.put(1, 1, -1, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,150 @@
+import java.util.Arrays;
+
+/**
+ * Statistics describing the shape of a hash table, used to spot poor hash
+ * distributions and costly resizes.
+ * <p>
+ * Statistics are opt-in: an AbstractHashMap only records them after
+ * enableStats() has been called, and the histogram is computed when getStats()
+ * is requested rather than maintained on every operation. The meaning of a
+ * "length" depends on the table: for a chained map it is the number of
+ * entries in a bucket (one sample per bucket, empty buckets included), and
+ * for an open-addressing map it is the number of slots probed to reach an
+ * entry (one sample per entry, 1 meaning the entry sits in its home slot).
+ */
+public class HashMapStats {
+
+    /** Lengths at or above this value share the last histogram cell. */
+    public static final int HISTOGRAM_SIZE = 16;
+
+    private long resizeCount = 0; // number of resizes since statistics were enabled
+    private long resizeNanos = 0; // total time spent in those resizes
+    private int[] histogram = new int[HISTOGRAM_SIZE];
+    private int maxLength = 0;
+    private int size = 0;
+    private int capacity = 0;
+
+    /**
+     * Creates empty statistics.
+     */
+    protected HashMapStats() {
+    }
+
+    /**
+     * Creates a copy of the given statistics, so that a snapshot handed out to a
+     * caller is unaffected by later operations on the table.
+     *
+     * @param other the statistics to copy
+     */
+    protected HashMapStats(HashMapStats other) {
+        resizeCount = other.resizeCount;
+        resizeNanos = other.resizeNanos;
+        histogram = other.histogram.clone();
+        maxLength = other.maxLength;
+        size = other.size;
+        capacity = other.capacity;
+    }
+
+    /**
+     * Records one completed resize.
+     *
+     * @param nanos the time the resize took, in nanoseconds
+     */
+    protected void recordResize(long nanos) {
+        resizeCount++;
+        resizeNanos += nanos;
+    }
+
+    /**
+     * Clears the histogram before the table reports its current shape.
+     *
+     * @param size     the number of entries in the table
+     * @param capacity the number of buckets in the table
+     */
+    protected void beginSnapshot(int size, int capacity) {
+        this.size = size;
+        this.capacity = capacity;
+        Arrays.fill(histogram, 0);
+        maxLength = 0;
+    }
+
+    /**
+     * Adds one bucket length or probe length to the histogram.
+     *
+     * @param length the length to record
+     */
+    protected void record(int length) {
+        histogram[Math.min(length, HISTOGRAM_SIZE - 1)]++;
+        maxLength = Math.max(maxLength, length);
+    }
+
+    /**
+     * Returns the ratio of entries to buckets.
+     *
+     * @return the load factor at the last snapshot
+     */
+    public double getLoadFactor() {
+        return (capacity == 0) ? 0 : (double) size / capacity;
+    }
+
+    /**
+     * Returns the number of entries at the last snapshot.
+     *
+     * @return the number of entries
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of buckets at the last snapshot.
+     *
+     * @return the capacity of the table
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of resizes since statistics were enabled.
+     *
+     * @return the resize count
+     */
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns the total time spent resizing since statistics were enabled.
+     *
+     * @return the resize time in nanoseconds
+     */
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    /**
+     * Returns the longest bucket or probe sequence at the last snapshot.
+     *
+     * @return the maximum length
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Returns a copy of the histogram, where cell i counts the samples of length
+     * i and the last cell counts every length of HISTOGRAM_SIZE - 1 or more.
+     *
+     * @return the length histogram at the last snapshot
+     */
+    public int[] getHistogram() {
+        return histogram.clone();
+    }
+
+    public String toString() {
+        return "size=" + size + ", capacity=" + capacity + ", load=" + String.format("%.3f", getLoadFactor())
+                + ", max=" + maxLength + ", resizes=" + resizeCount + ", resizeMillis=" + (resizeNanos / 1000000)
+                + ", histogram=" + Arrays.toString(histogram);
+    }
+}
@@ -0,0 +1,262 @@
+import java.util.ArrayList;
+
+/**
+ * Map implementation using hash table with separate chaining that grows
+ * incrementally.
+ * <p>
+ * When the load factor is exceeded the current table is not rehashed in one
+ * go. Instead a new, larger table is created and the old one is kept alive;
+ * each subsequent put or remove then moves a bounded number of old buckets
+ * across, so no single operation pays for rehashing the whole map. Lookups
+ * consult the new table first and fall back to the old one while a migration
+ * is in progress.
+ */
+public class IncrementalChainHashMap<K, V> extends AbstractHashMap<K, V> {
+
+    /** Number of old buckets examined by each put or remove during a migration. */
+    private static final int MIGRATION_STEP = 8;
+
+    // a fixed capacity array of UnsortedTableMap that serve as buckets
+    private UnsortedTableMap<K, V>[] table; // initialized within createTable
+
+    private UnsortedTableMap<K, V>[] oldTable; // table being drained, or null
+    private int oldCapacity; // length of oldTable
+    private int migrateIndex; // next bucket of oldTable to move
+
+    /**
+     * Creates a hash table with capacity 17 and prime factor 109345121.
+     */
+    public IncrementalChainHashMap() {
+
+        super();
+    }
+
+    /**
+     * Creates a hash table with given capacity and prime factor 109345121.
+     */
+    public IncrementalChainHashMap(int cap) {
+
+        super(cap);
+    }
+
+    /**
+     * Creates a hash table with the given capacity and prime factor.
+     */
+    public IncrementalChainHashMap(int cap, int p) {
+
+        super(cap, p);
+    }
+
+    /**
+     * Tests whether a resize is still being carried out.
+     *
+     * @return true if entries remain in the old table, false otherwise
+     */
+    public boolean isMigrating() {
+
+        return oldTable != null;
+    }
+
+    /**
+     * Creates an empty table having length equal to current capacity.
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected void createTable() {
+
+        table = (UnsortedTableMap<K, V>[]) new UnsortedTableMap[capacity];
+    }
+
+    /**
+     * Starts moving entries to a table of the new capacity. Any migration still in
+     * progress from an earlier resize is completed first.
+     */
+    @Override
+    protected void resize(int newCap) {
+
+        while (oldTable != null) {
+
+            migrateStep();
+        }
+
+        oldTable = table;
+        oldCapacity = capacity;
+        migrateIndex = 0;
+        capacity = newCap;
+        createTable();
+    }
+
+    /**
+     * Moves every entry of old bucket j into the current table.
+     */
+    private void migrateBucket(int j) {
+
+        UnsortedTableMap<K, V> oldBucket = oldTable[j];
+
+        if (oldBucket == null) {
+
+            return;
+        }
+
+        for (Entry<K, V> entry : oldBucket.entrySet()) {
+
+            int h = hashValue(entry.getKey());
+
+            if (table[h] == null) {
+
+                table[h] = new UnsortedTableMap<>();
+            }
+
+            table[h].put(entry.getKey(), entry.getValue());
+        }
+
+        oldTable[j] = null;
+    }
+
+    /**
+     * Moves up to MIGRATION_STEP old buckets across, dropping the old table once
+     * it has been drained.
+     */
+    private void migrateStep() {
+
+        int limit = Math.min(oldCapacity, migrateIndex + MIGRATION_STEP);
+
+        while (migrateIndex < limit) {
+
+            migrateBucket(migrateIndex++);
+        }
+
+        if (migrateIndex == oldCapacity) {
+
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Ensures that key k, if present, lives in the current table, then advances
+     * the migration by one step.
+     */
+    private void migrateKey(K k) {
+
+        if (oldTable != null) {
+
+            migrateBucket(hashValue(k, oldCapacity));
+            migrateStep();
+        }
+    }
+
+    /**
+     * Returns value associated with key k in bucket with hash value h. If no such
+     * entry exists, returns null.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return associate value (or null, if no such entry)
+     */
+    @Override
+    protected V bucketGet(int h, K k) {
+
+        UnsortedTableMap<K, V> bucket = table[h];
+        V value = (bucket == null) ? null : bucket.get(k);
+
+        if (value == null && oldTable != null) {
+
+            bucket = oldTable[hashValue(k, oldCapacity)];
+            value = (bucket == null) ? null : bucket.get(k);
+        }
+
+        return value;
+    }
+
+    /**
+     * Associates key k with value v in bucket with hash value h, returning the
+     * previously associated value, if any.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @param v the value to be associated
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    protected V bucketPut(int h, K k, V v) {
+
+        migrateKey(k);
+        UnsortedTableMap<K, V> bucket = table[h];
+
+        if (bucket == null) {
+
+            table[h] = new UnsortedTableMap<>();
+            bucket = table[h];
+        }
+
+        int previousSize = bucket.size();
+        V previousValue = bucket.put(k, v);
+        n += (bucket.size() - previousSize);
+        return previousValue;
+    }
+
+    /**
+     * Removes entry having key k from bucket with hash value h, returning the
+     * previously associated value, if found.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    protected V bucketRemove(int h, K k) {
+
+        migrateKey(k);
+        UnsortedTableMap<K, V> bucket = table[h];
+
+        if (bucket == null) {
+
+            return null;
+        }
+
+        int previousSize = bucket.size();
+        V previousValue = bucket.remove(k);
+        n -= (previousSize - bucket.size());
+        return previousValue;
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+
+        ArrayList<Entry<K, V>> temporary = new ArrayList<>(n);
+        addEntries(table, temporary);
+
+        if (oldTable != null) {
+
+            addEntries(oldTable, temporary);
+        }
+
+        return temporary;
+    }
+
+    /** Appends the entries of every bucket in buckets to the given list. */
+    private void addEntries(UnsortedTableMap<K, V>[] buckets, ArrayList<Entry<K, V>> list) {
+
+        for (UnsortedTableMap<K, V> bucket : buckets) {
+
+            if (bucket != null) {
+
+                for (Entry<K, V> entry : bucket.entrySet()) {
+
+                    list.add(entry);
+                }
+            }
+        }
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+}
@@ -0,0 +1,119 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalChainHashMapTest {
+
+	@Test
+	void testSize() {
+		IncrementalChainHashMap<Integer, String> map = new IncrementalChainHashMap<Integer, String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		IncrementalChainHashMap<String, Integer> map = new IncrementalChainHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.get("5"));
+		assertEquals(2, map.get("2"));
+	}
+
+	@Test
+	void testRemove() {
+		IncrementalChainHashMap<String, Integer> map = new IncrementalChainHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.remove("5"));
+		assertEquals(n-1, map.size());
+	}
+
+	@Test
+	void testPut() {
+		IncrementalChainHashMap<String, Integer> map = new IncrementalChainHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(n, map.size());		
+	}
+
+	@Test
+	void testIsEmpty() {
+		IncrementalChainHashMap<String, Integer> map = new IncrementalChainHashMap<String, Integer>();
+
+		assertEquals(true, map.isEmpty());
+		
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(false, map.isEmpty());	
+	}
+
+	@Test
+	void testKeySet() {
+		IncrementalChainHashMap<String, Integer> map = new IncrementalChainHashMap<String, Integer>();
+
+		map.put("one", 1);
+		map.put("two", 2);
+		map.put("three", 3);
+		ArrayList<String> buf = new ArrayList<>();
+		for(String s : map.keySet()) buf.add(s);
+		buf.sort(new DefaultComparator<String>());
+		assertEquals("[one, three, two]", buf.toString());
+	}
+
+	@Test
+	void testValues() {
+		IncrementalChainHashMap<String, Integer> map = new IncrementalChainHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer s : map.values()) buf.add(s);
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
+	}
+
+	@Test
+	void testGetDuringMigration() {
+		IncrementalChainHashMap<Integer, String> map = new IncrementalChainHashMap<Integer, String>(101);
+
+		int n = 51;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(true, map.isMigrating());
+		for(int i = 0; i < n; ++i) {
+			assertEquals(Integer.toString(i), map.get(i));
+		}
+		assertEquals("50", map.remove(50));
+		assertEquals(n - 1, map.size());
+
+		for(int i = n; i < 200; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		for(int i = 0; i < 200; ++i) {
+			assertEquals(i == 50 ? null : Integer.toString(i), map.get(i));
+		}
+		assertEquals(199, map.size());
+	}
+
+}
@@ -0,0 +1,189 @@
+import java.util.*;
+
+/**
+ * A skip list whose forward links are annotated with their widths, the number
+ * of level-0 steps each link skips over.
+ * <p>
+ * The list is a SkipList whose nodes also carry a width per level; searching,
+ * navigation and iteration are inherited unchanged. Adding up the widths along
+ * a search path gives the position it has reached, so besides the SortedMap
+ * operations the list answers rank(key), the number of keys smaller than a
+ * key, and select(i), the entry at index i, in O(log n) expected time. Slices
+ * by index take O(log n + k) time for k entries. put and remove update the
+ * widths along their search path at no extra asymptotic cost.
+ */
+public class IndexableSkipList<K extends Comparable<? super K>, V> extends SkipList<K, V> {
+
+    // A node whose tower also holds, on each level, the width of the link to
+    // the next node, i.e. the difference in position between the two nodes.
+    // The width of a null link is unused.
+    private static class IndexedNode<K, V> extends SkipListNode<K, V> {
+        private int[] width; // width[i] is the number of positions next[i] is ahead
+
+        public IndexedNode(K key, V value, int level) {
+            super(key, value, level);
+            width = new int[level + 1];
+        }
+    }
+
+    protected IndexableSkipList(Comparator<K> c) {
+        super(c);
+    }
+
+    public IndexableSkipList() {
+        this(new DefaultComparator<K>());
+    }
+
+    @Override
+    protected SkipListNode<K, V> createNode(K key, V value, int level) {
+        return new IndexedNode<K, V>(key, value, level);
+    }
+
+    // Returns the widths of a node's tower
+    private static <K, V> int[] width(SkipListNode<K, V> node) {
+        return ((IndexedNode<K, V>) node).width;
+    }
+
+    @Override
+    protected void raiseLevel(int level) {
+        super.raiseLevel(level);
+        IndexedNode<K, V> first = (IndexedNode<K, V>) head;
+        first.width = Arrays.copyOf(first.width, level + 1);
+    }
+
+    // Returns the positions of the nodes in update, as filled in by findLower,
+    // by walking the search path again and adding up the widths
+    private int[] positions(SkipListNode<K, V>[] update) {
+        int[] positions = new int[update.length];
+        SkipListNode<K, V> current = head;
+        int position = 0;
+
+        for(int level = update.length - 1; level >= 0; level--) {
+            while(current != update[level]) {
+                position += width(current)[level];
+                current = current.next[level];
+            }
+            positions[level] = position;
+        }
+
+        return positions;
+    }
+
+    @Override
+    protected void link(SkipListNode<K, V> node, SkipListNode<K, V>[] update) {
+        int[] positions = positions(update);
+        int position = positions[0] + 1;
+        int[] width = width(node);
+        super.link(node, update);
+
+        for(int i = 0; i <= maxLevel; i++) {
+
+            int[] previous = width(update[i]);
+
+            if(i <= node.level()) {
+                width[i] = positions[i] + previous[i] + 1 - position;
+                previous[i] = position - positions[i];
+            } else if(update[i].next[i] != null) {
+                previous[i]++; // the link now skips over the new node too
+            }
+        }
+    }
+
+    @Override
+    protected void unlink(SkipListNode<K, V> node, SkipListNode<K, V>[] update) {
+        super.unlink(node, update);
+
+        for(int i = 0; i <= maxLevel; i++) {
+
+            int[] previous = width(update[i]);
+
+            if(i <= node.level()) {
+                previous[i] += width(node)[i] - 1;
+            } else if(update[i].next[i] != null) {
+                previous[i]--;
+            }
+        }
+    }
+
+    // Returns the node at the given position; the head is at position 0 and
+    // the entries at positions 1 to size
+    private SkipListNode<K, V> nodeAt(int target) {
+        SkipListNode<K, V> current = head;
+        int position = 0;
+
+        for(int level = maxLevel; level >= 0; level--) {
+            while(current.next[level] != null && position + width(current)[level] <= target) {
+                position += width(current)[level];
+                current = current.next[level];
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Returns the number of keys in the map that are strictly less than the
+     * given key, i.e. the index the key has, or would have, in sorted order.
+     *
+     * @param key the key of interest
+     * @return the rank of key
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @SuppressWarnings({ "unchecked" })
+    public int rank(K key) throws IllegalArgumentException {
+        checkKey(key);
+        SkipListNode<K, V>[] update = (SkipListNode<K, V>[]) new SkipListNode[maxLevel+1];
+        findLower(key, update);
+        return positions(update)[0];
+    }
+
+    /**
+     * Returns the entry at the given index in sorted order.
+     *
+     * @param i the index, from 0 to size() - 1
+     * @return the entry with exactly i smaller keys
+     * @throws IndexOutOfBoundsException if i is not a valid index
+     */
+    public Entry<K, V> select(int i) throws IndexOutOfBoundsException {
+        if(i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " is not in [0, " + size + ")");
+        }
+        return nodeAt(i + 1);
+    }
+
+    /**
+     * Returns the entries with indices from fromIndex inclusive to toIndex
+     * exclusive, in sorted order. The first entry is found in O(log n) time when
+     * iteration starts and the rest by walking the bottom level.
+     *
+     * @param fromIndex the index of the first entry
+     * @param toIndex   the index after the last entry
+     * @return iterable with the entries in the index range
+     * @throws IndexOutOfBoundsException if the range is not within [0, size()]
+     */
+    public Iterable<Entry<K, V>> slice(int fromIndex, int toIndex) throws IndexOutOfBoundsException {
+        if(fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") is not in [0, " + size + "]");
+        }
+        // keys are distinct, so the range ends just before the key at toIndex
+        return () -> new EntryIterator(nodeAt(fromIndex).next[0], (toIndex == size) ? null : nodeAt(toIndex + 1).getKey());
+    }
+
+    public static void main(String[] args) {
+        IndexableSkipList<String, Integer> scores = new IndexableSkipList<String, Integer>();
+
+        for(String name : new String[] { "kim", "ann", "bob", "joe", "sue", "tom" }) {
+            scores.put(name, name.length());
+        }
+
+        System.out.println(scores);
+        System.out.println("rank of joe: " + scores.rank("joe"));
+        System.out.println("select(2): " + scores.select(2));
+
+        for(Entry<String, Integer> entry : scores.slice(1, 4)) {
+            System.out.println(entry);
+        }
+    }
+
+
+}
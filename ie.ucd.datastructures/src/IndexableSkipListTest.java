@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IndexableSkipListTest {
+
+	@Test
+	void testRankAndSelect() {
+		IndexableSkipList<Integer, String> map = new IndexableSkipList<Integer, String>();
+
+		for(int i = 0; i < 100; i++) {
+			map.put(2 * i, Integer.toString(i));
+		}
+		assertEquals(0, map.rank(0));
+		assertEquals(5, map.rank(10));
+		assertEquals(6, map.rank(11));
+		assertEquals(100, map.rank(1000));
+		assertEquals(0, map.select(0).getKey());
+		assertEquals(84, map.select(42).getKey());
+		assertEquals(198, map.select(99).getKey());
+		assertThrows(IndexOutOfBoundsException.class, () -> map.select(100));
+	}
+
+	@Test
+	void testSlice() {
+		IndexableSkipList<Integer, String> map = new IndexableSkipList<Integer, String>();
+
+		for(int i = 0; i < 10; i++) {
+			map.put(i * 10, Integer.toString(i));
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Entry<Integer, String> entry : map.slice(2, 5)) buf.add(entry.getKey());
+		assertEquals("[20, 30, 40]", buf.toString());
+
+		buf.clear();
+		for(Entry<Integer, String> entry : map.slice(8, 10)) buf.add(entry.getKey());
+		assertEquals("[80, 90]", buf.toString());
+		assertThrows(IndexOutOfBoundsException.class, () -> map.slice(5, 11));
+	}
+
+	@Test
+	void testRandomOperations() {
+		IndexableSkipList<Integer, Integer> map = new IndexableSkipList<Integer, Integer>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(11);
+
+		for(int i = 0; i < 5000; i++) {
+			int k = rnd.nextInt(500);
+			if(rnd.nextInt(3) > 0) {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			} else {
+				assertEquals(expected.remove(k), map.remove(k));
+			}
+			int probe = rnd.nextInt(500);
+			assertEquals(expected.headMap(probe).size(), map.rank(probe));
+			assertEquals(expected.get(probe), map.get(probe));
+		}
+		assertEquals(expected.size(), map.size());
+
+		int index = 0;
+		for(Integer k : expected.keySet()) {
+			assertEquals(k, map.select(index++).getKey());
+		}
+		for(int i = 0; i < 100; i++) {
+			int from = rnd.nextInt(expected.size() + 1);
+			int to = from + rnd.nextInt(expected.size() - from + 1);
+			ArrayList<Integer> keys = new ArrayList<>(expected.keySet());
+			ArrayList<Integer> buf = new ArrayList<>();
+			for(Entry<Integer, Integer> entry : map.slice(from, to)) buf.add(entry.getKey());
+			assertEquals(keys.subList(from, to), buf);
+		}
+		assertEquals(expected.lastKey(), map.lastEntry().getKey());
+		assertEquals(expected.floorKey(250), map.floorEntry(250).getKey());
+		assertEquals(expected.higherKey(250), map.higherEntry(250).getKey());
+	}
+
+}
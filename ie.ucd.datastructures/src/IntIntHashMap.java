@@ -0,0 +1,288 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A hash map from int keys to int values that stores both in primitive arrays.
+ * <p>
+ * The map follows the shape of the Map interface but never boxes its keys or
+ * values, so get and put do not allocate. Collisions are resolved by linear
+ * probing with MAD compression, as in AbstractHashMap, and removal shifts the
+ * following entries back rather than leaving a tombstone. Because an int
+ * cannot be null, get returns a configurable missing value for absent keys;
+ * use containsKey to tell the two apart.
+ */
+public class IntIntHashMap {
+
+    private int[] keys; // key stored in each slot
+    private int[] values; // value stored in each slot
+    private boolean[] used; // whether each slot holds an entry
+
+    private int n = 0; // number of entries in the map
+    private int capacity; // length of the table
+    private final int missingValue; // returned by get for absent keys
+
+    private int prime; // prime factor
+    private long scale, shift; // the shift and scaling factors
+
+    /**
+     * Creates a map with capacity 17 that reports 0 for absent keys.
+     */
+    public IntIntHashMap() {
+
+        this(17);
+    }
+
+    /**
+     * Creates a map with the given capacity that reports 0 for absent keys.
+     */
+    public IntIntHashMap(int cap) {
+
+        this(cap, 0);
+    }
+
+    /**
+     * Creates a map with the given capacity.
+     *
+     * @param cap          the initial capacity
+     * @param missingValue the value returned by get and remove for absent keys
+     */
+    public IntIntHashMap(int cap, int missingValue) {
+
+        this.missingValue = missingValue;
+        capacity = Math.max(cap, 2);
+        prime = 109345121;
+        Random rand = new Random();
+        scale = rand.nextInt(prime - 1) + 1;
+        shift = rand.nextInt(prime);
+        createTable();
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+
+        return n;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+
+        return n == 0;
+    }
+
+    /**
+     * Tests whether the map contains an entry for the given key.
+     *
+     * @param key the key of interest
+     * @return true if an entry exists for key, false otherwise
+     */
+    public boolean containsKey(int key) {
+
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or the missing value
+     * if no such entry exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or the missing value if no such entry exists
+     */
+    public int get(int key) {
+
+        int j = findSlot(key);
+        return (j < 0) ? missingValue : values[j];
+    }
+
+    /**
+     * Associates the given value with the given key, replacing and returning any
+     * previous value. Otherwise a new entry is added and the missing value is
+     * returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or the missing value,
+     *         if no such entry)
+     */
+    public int put(int key, int value) {
+
+        int j = findSlot(key);
+
+        if (j >= 0) {
+
+            int previousValue = values[j];
+            values[j] = value;
+            return previousValue;
+        }
+
+        j = -(j + 1);
+        keys[j] = key;
+        values[j] = value;
+        used[j] = true;
+        n++;
+
+        if (n > capacity / 2) {
+
+            resize(2 * capacity - 1);
+        }
+
+        return missingValue;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * value. Otherwise does nothing and returns the missing value.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or the missing
+     *         value if no such entry exists
+     */
+    public int remove(int key) {
+
+        int j = findSlot(key);
+
+        if (j < 0) {
+
+            return missingValue;
+        }
+
+        int previousValue = values[j];
+        closeGap(j);
+        n--;
+        return previousValue;
+    }
+
+    /**
+     * Returns a new array holding the keys of the map, in table order.
+     *
+     * @return array of the map's keys
+     */
+    public int[] keys() {
+
+        int[] result = new int[n];
+        int i = 0;
+
+        for (int j = 0; j < capacity; j++) {
+
+            if (used[j]) {
+
+                result[i++] = keys[j];
+            }
+        }
+
+        return result;
+    }
+
+    public String toString() {
+
+        int[] sorted = keys();
+        Arrays.sort(sorted);
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int i = 0; i < sorted.length; i++) {
+
+            sb.append(i == 0 ? "" : ", ").append(sorted[i]).append("=").append(get(sorted[i]));
+        }
+
+        return sb.append("]").toString();
+    }
+
+    // private utilities
+
+    /** Creates empty arrays having length equal to current capacity. */
+    private void createTable() {
+
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    /** Hash function applying MAD method to the key. */
+    private int hashValue(int key) {
+
+        return (int) ((Math.abs(key * scale + shift) % prime) % capacity);
+    }
+
+    /**
+     * Returns index j with non-negative value if key was found at slot j, or
+     * -(a+1) where a is the empty slot at which the search stopped.
+     */
+    private int findSlot(int key) {
+
+        int j = hashValue(key);
+
+        while (used[j]) {
+
+            if (keys[j] == key) {
+
+                return j;
+            }
+
+            j = (j + 1) % capacity;
+        }
+
+        return -(j + 1);
+    }
+
+    /**
+     * Empties slot i, moving later entries of the same probe run back so that no
+     * search is cut short by the new gap.
+     */
+    private void closeGap(int i) {
+
+        int j = i;
+
+        while (true) {
+
+            j = (j + 1) % capacity;
+
+            if (!used[j]) {
+
+                break;
+            }
+
+            int home = hashValue(keys[j]);
+
+            // the entry at j may fill the gap only if its home is not in (i, j]
+            boolean movable = (i <= j) ? (home <= i || home > j) : (home <= i && home > j);
+
+            if (movable) {
+
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+
+        used[i] = false;
+    }
+
+    /** Rebuilds the table with the new capacity. */
+    private void resize(int newCap) {
+
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        capacity = newCap;
+        createTable();
+
+        for (int j = 0; j < oldKeys.length; j++) {
+
+            if (oldUsed[j]) {
+
+                int slot = -(findSlot(oldKeys[j]) + 1);
+                keys[slot] = oldKeys[j];
+                values[slot] = oldValues[j];
+                used[slot] = true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntIntHashMapTest {
+
+	@Test
+	void testSize() {
+		IntIntHashMap map = new IntIntHashMap();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		IntIntHashMap map = new IntIntHashMap(17, -1);
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(25, map.get(5));
+		assertEquals(4, map.get(2));
+		assertEquals(-1, map.get(11));
+		assertEquals(false, map.containsKey(11));
+	}
+
+	@Test
+	void testRemove() {
+		IntIntHashMap map = new IntIntHashMap();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, i * i);
+		}
+		assertEquals(25, map.remove(5));
+		assertEquals(n-1, map.size());
+		assertEquals(false, map.containsKey(5));
+	}
+
+	@Test
+	void testKeys() {
+		IntIntHashMap map = new IntIntHashMap();
+
+		map.put(3, 1);
+		map.put(-7, 2);
+		map.put(12, 3);
+		int[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals("[-7, 3, 12]", Arrays.toString(keys));
+		assertEquals("[-7=2, 3=1, 12=3]", map.toString());
+	}
+
+	@Test
+	void testAgainstHashMap() {
+		IntIntHashMap map = new IntIntHashMap(5);
+		HashMap<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		Random rnd = new Random(4);
+
+		for(int i = 0; i < 5000; ++i) {
+			int k = rnd.nextInt(400) - 200;
+			if(rnd.nextInt(3) == 0) {
+				assertEquals(expected.containsKey(k) ? expected.remove(k) : 0, map.remove(k));
+			} else {
+				Integer old = expected.put(k, i);
+				assertEquals(old == null ? 0 : old, map.put(k, i));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for(int k = -200; k < 200; ++k) {
+			assertEquals(expected.containsKey(k), map.containsKey(k));
+		}
+	}
+
+}
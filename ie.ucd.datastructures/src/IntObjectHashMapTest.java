@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntObjectHashMapTest {
+
+	@Test
+	void testGet() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, map.size());
+		assertEquals("5", map.get(5));
+		assertEquals(null, map.get(11));
+		assertEquals(false, map.containsKey(11));
+		assertEquals("5", map.put(5, "five"));
+		assertEquals("five", map.get(5));
+	}
+
+	@Test
+	void testRemove() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(-i, Integer.toString(i));
+		}
+		assertEquals("5", map.remove(-5));
+		assertEquals(null, map.remove(-5));
+		assertEquals(n-1, map.size());
+		assertEquals(false, map.containsKey(-5));
+	}
+
+	@Test
+	void testKeys() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<String>();
+
+		map.put(3, "a");
+		map.put(-7, "b");
+		map.put(12, "c");
+		int[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals("[-7, 3, 12]", Arrays.toString(keys));
+		assertEquals("[-7=b, 3=a, 12=c]", map.toString());
+	}
+
+	@Test
+	void testAgainstHashMap() {
+		IntObjectHashMap<Integer> map = new IntObjectHashMap<Integer>(5);
+		HashMap<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		Random rnd = new Random(6);
+
+		// a key range close to the capacity keeps probe runs long and wrapping
+		// around the end of the table, so removals move entries in every case
+		for(int i = 0; i < 20000; ++i) {
+			int k = rnd.nextInt(100) - 50;
+			if(rnd.nextInt(2) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+				for(int key : expected.keySet()) {
+					assertEquals(expected.get(key), map.get(key));
+				}
+			} else {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for(int k = -50; k < 50; ++k) {
+			assertEquals(expected.containsKey(k), map.containsKey(k));
+		}
+	}
+
+}
@@ -0,0 +1,350 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A bounded map that evicts its least recently used entries.
+ * <p>
+ * Entries are kept in a doubly linked list, most recently used first, between
+ * header and trailer sentinels as in DoublyLinkedList. A ChainHashMap indexes
+ * the list nodes by key, so a lookup finds its node directly and moves it to
+ * the front of the list in O(1), and the entry to evict is always the one just
+ * before the trailer.
+ * <p>
+ * The cache is bounded either by the number of entries or by their total
+ * weight, as computed by a Weigher. Evicted entries are reported to an
+ * optional EvictionListener, and the cache counts its hits, misses and
+ * evictions.
+ */
+public class LRUCache<K, V> extends AbstractMap<K, V> {
+
+    // ---------------- nested Node class ----------------
+    /**
+     * Node of the recency list, which is also the entry stored in the cache.
+     */
+    protected static class Node<K, V> extends MapEntry<K, V> {
+        private int weight; // weight of this entry
+        private Node<K, V> next; // next less recently used node
+        private Node<K, V> last; // next more recently used node
+
+        public Node(K key, V value, int weight) {
+            super(key, value);
+            this.weight = weight;
+        }
+    } // ----------- end of nested Node class -----------
+
+    private final ChainHashMap<K, Node<K, V>> index; // key to list node
+    private final Node<K, V> header = new Node<>(null, null, 0); // most recently used side
+    private final Node<K, V> trailer = new Node<>(null, null, 0); // least recently used side
+
+    private final Weigher<K, V> weigher;
+    private final long maximumWeight;
+    private long weight = 0; // total weight of the cached entries
+    private EvictionListener<K, V> listener; // may be null
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Creates a cache holding at most the given number of entries.
+     *
+     * @param maximumSize the maximum number of entries
+     * @throws IllegalArgumentException if maximumSize is not positive
+     */
+    public LRUCache(int maximumSize) throws IllegalArgumentException {
+
+        this(maximumSize, (k, v) -> 1);
+    }
+
+    /**
+     * Creates a cache whose entries may have a total weight of at most
+     * maximumWeight.
+     *
+     * @param maximumWeight the maximum total weight of the entries
+     * @param weigher       computes the weight of each entry
+     * @throws IllegalArgumentException if maximumWeight is not positive
+     */
+    public LRUCache(long maximumWeight, Weigher<K, V> weigher) throws IllegalArgumentException {
+
+        if (maximumWeight <= 0) {
+
+            throw new IllegalArgumentException("Maximum weight must be positive");
+        }
+
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        index = new ChainHashMap<>();
+        header.next = trailer;
+        trailer.last = header;
+    }
+
+    /**
+     * Sets the listener to be notified of every eviction, replacing any previous
+     * one.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     *
+     * @return number of entries in the cache
+     */
+    @Override
+    public int size() {
+
+        return index.size();
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists. A hit makes the entry the most recently used one.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) {
+
+        Node<K, V> node = index.get(key);
+
+        if (node == null) {
+
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        unlink(node);
+        linkFirst(node);
+        return node.getValue();
+    }
+
+    /**
+     * Associates the given value with the given key, making the entry the most
+     * recently used one, then evicts least recently used entries until the cache
+     * is back within its bound. An entry heavier than the whole bound is never
+     * cached: it replaces any previous mapping of its key and is then evicted
+     * straight away, as a single eviction, leaving the other entries in place.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     * @throws IllegalArgumentException if the weigher returns a negative weight
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+
+        int w = weigher.weigh(key, value);
+
+        if (w < 0) {
+
+            throw new IllegalArgumentException("Weight must not be negative");
+        }
+
+        Node<K, V> node = index.get(key);
+        V answer = null;
+
+        if (w > maximumWeight) { // could only fit by evicting everything, itself included
+
+            if (node != null) {
+
+                answer = node.getValue();
+                remove(key);
+            }
+
+            evictionCount++;
+
+            if (listener != null) {
+
+                listener.onEviction(key, value);
+            }
+
+            return answer;
+        }
+
+        if (node == null) {
+
+            node = new Node<>(key, value, w);
+            index.put(key, node);
+        } else {
+
+            answer = node.setValue(value);
+            weight -= node.weight;
+            node.weight = w;
+            unlink(node);
+        }
+
+        weight += w;
+        linkFirst(node);
+        evict();
+        return answer;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. The eviction listener is not notified.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(K key) {
+
+        Node<K, V> node = index.remove(key);
+
+        if (node == null) {
+
+            return null;
+        }
+
+        unlink(node);
+        weight -= node.weight;
+        return node.getValue();
+    }
+
+    /** Evicts least recently used entries while the cache is over its bound. */
+    private void evict() {
+
+        while (weight > maximumWeight && trailer.last != header) {
+
+            Node<K, V> victim = trailer.last;
+            unlink(victim);
+            index.remove(victim.getKey());
+            weight -= victim.weight;
+            evictionCount++;
+
+            if (listener != null) {
+
+                listener.onEviction(victim.getKey(), victim.getValue());
+            }
+        }
+    }
+
+    /** Inserts node at the front of the recency list. */
+    private void linkFirst(Node<K, V> node) {
+
+        node.last = header;
+        node.next = header.next;
+        header.next.last = node;
+        header.next = node;
+    }
+
+    /** Detaches node from the recency list. */
+    private void unlink(Node<K, V> node) {
+
+        node.last.next = node.next;
+        node.next.last = node.last;
+        node.next = null;
+        node.last = null;
+    }
+
+    /**
+     * Returns the total weight of the cached entries. Without a weigher this is
+     * the number of entries.
+     *
+     * @return the current weight
+     */
+    public long weight() {
+
+        return weight;
+    }
+
+    /**
+     * Returns the number of get calls that found their key.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of get calls that did not find their key.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the bound.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+
+        return evictionCount;
+    }
+
+    /**
+     * Returns the fraction of get calls that were hits, or 0 if there were none.
+     *
+     * @return the hit rate
+     */
+    public double hitRate() {
+
+        long requests = hitCount + missCount;
+        return (requests == 0) ? 0 : (double) hitCount / requests;
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Node<K, V> cursor = header.next;
+
+        public boolean hasNext() {
+            return cursor != trailer;
+        }
+
+        public Entry<K, V> next() throws NoSuchElementException {
+            if (cursor == trailer) {
+                throw new NoSuchElementException("No more entries");
+            }
+            Node<K, V> answer = cursor;
+            cursor = cursor.next;
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    /**
+     * Returns an iterable collection of all key-value entries of the cache, from
+     * the most to the least recently used. Iterating does not affect recency.
+     *
+     * @return iterable collection of the cache's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+
+        return EntryIterator::new;
+    }
+
+    public String toString() {
+
+        return keySet().toString();
+    }
+
+    public static void main(String[] args) {
+
+        LRUCache<Integer, String> cache = new LRUCache<>(3);
+        cache.setEvictionListener((k, v) -> System.out.println("evicted " + k + "=" + v));
+
+        for (int i = 0; i < 5; i++) {
+
+            cache.put(i, Integer.toString(i));
+            cache.get(2);
+        }
+
+        System.out.println("cache: " + cache);
+        System.out.println("hits: " + cache.getHitCount() + ", misses: " + cache.getMissCount());
+    }
+
+}
@@ -0,0 +1,118 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LRUCacheTest {
+
+	@Test
+	void testEvictsLeastRecentlyUsed() {
+		LRUCache<Integer, String> cache = new LRUCache<Integer, String>(3);
+		cache.put(1, "1");
+		cache.put(2, "2");
+		cache.put(3, "3");
+		cache.get(1);
+		cache.put(4, "4");
+
+		assertEquals(3, cache.size());
+		assertNull(cache.get(2));
+		assertEquals("1", cache.get(1));
+		assertEquals("[1, 4, 3]", cache.toString());
+	}
+
+	@Test
+	void testPutReplaces() {
+		LRUCache<Integer, String> cache = new LRUCache<Integer, String>(2);
+		cache.put(1, "1");
+		cache.put(2, "2");
+
+		assertEquals("1", cache.put(1, "one"));
+		cache.put(3, "3");
+
+		assertEquals("one", cache.get(1));
+		assertNull(cache.get(2));
+	}
+
+	@Test
+	void testRemove() {
+		LRUCache<Integer, String> cache = new LRUCache<Integer, String>(2);
+		cache.put(1, "1");
+		cache.put(2, "2");
+
+		assertEquals("1", cache.remove(1));
+		assertNull(cache.remove(1));
+		assertEquals(1, cache.size());
+		assertEquals(0, cache.getEvictionCount());
+	}
+
+	@Test
+	void testWeight() {
+		LRUCache<String, String> cache = new LRUCache<String, String>(10, (k, v) -> v.length());
+		cache.put("a", "aaaa");
+		cache.put("b", "bbbb");
+		cache.put("c", "cc");
+
+		assertEquals(10, cache.weight());
+		cache.put("d", "d");
+
+		assertEquals(7, cache.weight());
+		assertNull(cache.get("a"));
+
+		cache.put("e", "eeeeeeeeeee"); // heavier than the whole cache
+		assertEquals(3, cache.size());
+		assertEquals(7, cache.weight());
+		assertNull(cache.get("e"));
+	}
+
+	@Test
+	void testTooHeavyPut() {
+		LRUCache<String, String> cache = new LRUCache<String, String>(10, (k, v) -> v.length());
+		ArrayList<String> evicted = new ArrayList<>();
+		cache.setEvictionListener((k, v) -> evicted.add(k + "=" + v));
+		cache.put("a", "aaaa");
+		cache.put("b", "bbbb");
+
+		assertNull(cache.put("c", "ccccccccccc"));
+		assertEquals("[c=ccccccccccc]", evicted.toString());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals("aaaa", cache.get("a"));
+		assertEquals("bbbb", cache.get("b"));
+		assertEquals(8, cache.weight());
+
+		// replacing a cached value with a too-heavy one drops the old mapping
+		assertEquals("bbbb", cache.put("b", "bbbbbbbbbbb"));
+		assertEquals("[c=ccccccccccc, b=bbbbbbbbbbb]", evicted.toString());
+		assertNull(cache.get("b"));
+		assertEquals("aaaa", cache.get("a"));
+		assertEquals(1, cache.size());
+		assertEquals(4, cache.weight());
+	}
+
+	@Test
+	void testListenerAndCounters() {
+		LRUCache<Integer, Integer> cache = new LRUCache<Integer, Integer>(2);
+		ArrayList<Integer> evicted = new ArrayList<>();
+		cache.setEvictionListener((k, v) -> evicted.add(k));
+
+		for (int i = 0; i < 5; i++) {
+			cache.put(i, i);
+		}
+		cache.get(4);
+		cache.get(0);
+
+		assertEquals("[0, 1, 2]", evicted.toString());
+		assertEquals(3, cache.getEvictionCount());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0.5, cache.hitRate());
+	}
+
+	@Test
+	void testInvalidCapacity() {
+		assertThrows(IllegalArgumentException.class, () -> new LRUCache<Integer, Integer>(0));
+	}
+
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongLongHashMapTest {
+
+	@Test
+	void testGet() {
+		LongLongHashMap map = new LongLongHashMap(17, -1);
+
+		int n = 10;
+		for(long i = 0; i < n; ++i) {
+			map.put(i << 40, i * i);
+		}
+		assertEquals(n, map.size());
+		assertEquals(25, map.get(5L << 40));
+		assertEquals(-1, map.get(5L));
+		assertEquals(false, map.containsKey(5L));
+		assertEquals(25, map.put(5L << 40, 5));
+		assertEquals(5, map.get(5L << 40));
+	}
+
+	@Test
+	void testRemove() {
+		LongLongHashMap map = new LongLongHashMap();
+
+		int n = 10;
+		for(long i = 0; i < n; ++i) {
+			map.put(-i, i * i);
+		}
+		assertEquals(25, map.remove(-5));
+		assertEquals(0, map.remove(-5));
+		assertEquals(n-1, map.size());
+		assertEquals(false, map.containsKey(-5));
+	}
+
+	@Test
+	void testKeys() {
+		LongLongHashMap map = new LongLongHashMap();
+
+		map.put(3L << 33, 1);
+		map.put(-7, 2);
+		map.put(12, 3);
+		long[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals("[-7, 12, 25769803776]", Arrays.toString(keys));
+		assertEquals("[-7=2, 12=3, 25769803776=1]", map.toString());
+	}
+
+	@Test
+	void testAgainstHashMap() {
+		LongLongHashMap map = new LongLongHashMap(5);
+		HashMap<Long, Long> expected = new HashMap<Long, Long>();
+		Random rnd = new Random(10);
+
+		// a key range close to the capacity keeps probe runs long and wrapping
+		// around the end of the table, so removals move entries in every case
+		for(int i = 0; i < 20000; ++i) {
+			long k = (rnd.nextInt(100) - 50) * 0x100000001L;
+			if(rnd.nextInt(2) == 0) {
+				Long old = expected.remove(k);
+				assertEquals(old == null ? 0 : old, map.remove(k));
+				for(long key : expected.keySet()) {
+					assertEquals(expected.get(key), map.get(key));
+				}
+			} else {
+				Long old = expected.put(k, (long) i);
+				assertEquals(old == null ? 0 : old, map.put(k, i));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for(long k : expected.keySet()) {
+			assertEquals(true, map.containsKey(k));
+		}
+	}
+
+}
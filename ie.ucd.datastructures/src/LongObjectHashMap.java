@@ -0,0 +1,279 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A hash map from long keys to object values that stores its keys in a primitive
+ * array.
+ * <p>
+ * The map follows the shape of the Map interface but never boxes its keys, so
+ * get and put do not allocate. Collisions are resolved by linear probing with
+ * MAD compression, as in AbstractHashMap, and removal shifts the following
+ * entries back rather than leaving a tombstone.
+ */
+public class LongObjectHashMap<V> {
+
+    private long[] keys; // key stored in each slot
+    private Object[] values; // value stored in each slot
+    private boolean[] used; // whether each slot holds an entry
+
+    private int n = 0; // number of entries in the map
+    private int capacity; // length of the table
+
+    private int prime; // prime factor
+    private long scale, shift; // the shift and scaling factors
+
+    /**
+     * Creates a map with capacity 17.
+     */
+    public LongObjectHashMap() {
+
+        this(17);
+    }
+
+    /**
+     * Creates a map with the given capacity.
+     */
+    public LongObjectHashMap(int cap) {
+
+        capacity = Math.max(cap, 2);
+        prime = 109345121;
+        Random rand = new Random();
+        scale = rand.nextInt(prime - 1) + 1;
+        shift = rand.nextInt(prime);
+        createTable();
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+
+        return n;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+
+        return n == 0;
+    }
+
+    /**
+     * Tests whether the map contains an entry for the given key.
+     *
+     * @param key the key of interest
+     * @return true if an entry exists for key, false otherwise
+     */
+    public boolean containsKey(long key) {
+
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such
+     * entry exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @SuppressWarnings({ "unchecked" })
+    public V get(long key) {
+
+        int j = findSlot(key);
+        return (j < 0) ? null : (V) values[j];
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @SuppressWarnings({ "unchecked" })
+    public V put(long key, V value) {
+
+        int j = findSlot(key);
+
+        if (j >= 0) {
+
+            V previousValue = (V) values[j];
+            values[j] = value;
+            return previousValue;
+        }
+
+        j = -(j + 1);
+        keys[j] = key;
+        values[j] = value;
+        used[j] = true;
+        n++;
+
+        if (n > capacity / 2) {
+
+            resize(2 * capacity - 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @SuppressWarnings({ "unchecked" })
+    public V remove(long key) {
+
+        int j = findSlot(key);
+
+        if (j < 0) {
+
+            return null;
+        }
+
+        V previousValue = (V) values[j];
+        closeGap(j);
+        n--;
+        return previousValue;
+    }
+
+    /**
+     * Returns a new array holding the keys of the map, in table order.
+     *
+     * @return array of the map's keys
+     */
+    public long[] keys() {
+
+        long[] result = new long[n];
+        int i = 0;
+
+        for (int j = 0; j < capacity; j++) {
+
+            if (used[j]) {
+
+                result[i++] = keys[j];
+            }
+        }
+
+        return result;
+    }
+
+    public String toString() {
+
+        long[] sorted = keys();
+        Arrays.sort(sorted);
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int i = 0; i < sorted.length; i++) {
+
+            sb.append(i == 0 ? "" : ", ").append(sorted[i]).append("=").append(get(sorted[i]));
+        }
+
+        return sb.append("]").toString();
+    }
+
+    // private utilities
+
+    /** Creates empty arrays having length equal to current capacity. */
+    private void createTable() {
+
+        keys = new long[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+    }
+
+    /** Hash function applying MAD method to the key folded to 32 bits. */
+    private int hashValue(long key) {
+
+        int folded = (int) (key ^ (key >>> 32));
+        return (int) ((Math.abs(folded * scale + shift) % prime) % capacity);
+    }
+
+    /**
+     * Returns index j with non-negative value if key was found at slot j, or
+     * -(a+1) where a is the empty slot at which the search stopped.
+     */
+    private int findSlot(long key) {
+
+        int j = hashValue(key);
+
+        while (used[j]) {
+
+            if (keys[j] == key) {
+
+                return j;
+            }
+
+            j = (j + 1) % capacity;
+        }
+
+        return -(j + 1);
+    }
+
+    /**
+     * Empties slot i, moving later entries of the same probe run back so that no
+     * search is cut short by the new gap.
+     */
+    private void closeGap(int i) {
+
+        int j = i;
+
+        while (true) {
+
+            j = (j + 1) % capacity;
+
+            if (!used[j]) {
+
+                break;
+            }
+
+            int home = hashValue(keys[j]);
+
+            // the entry at j may fill the gap only if its home is not in (i, j]
+            boolean movable = (i <= j) ? (home <= i || home > j) : (home <= i && home > j);
+
+            if (movable) {
+
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+
+        used[i] = false;
+        values[i] = null; // help garbage collection
+    }
+
+    /** Rebuilds the table with the new capacity. */
+    private void resize(int newCap) {
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        capacity = newCap;
+        createTable();
+
+        for (int j = 0; j < oldKeys.length; j++) {
+
+            if (oldUsed[j]) {
+
+                int slot = -(findSlot(oldKeys[j]) + 1);
+                keys[slot] = oldKeys[j];
+                values[slot] = oldValues[j];
+                used[slot] = true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongObjectHashMapTest {
+
+	@Test
+	void testGet() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+
+		int n = 10;
+		for(long i = 0; i < n; ++i) {
+			map.put(i << 40, Long.toString(i));
+		}
+		assertEquals(n, map.size());
+		assertEquals("5", map.get(5L << 40));
+		assertEquals(null, map.get(5L));
+	}
+
+	@Test
+	void testRemove() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+
+		int n = 10;
+		for(long i = 0; i < n; ++i) {
+			map.put(-i, Long.toString(i));
+		}
+		assertEquals("5", map.remove(-5));
+		assertEquals(null, map.remove(-5));
+		assertEquals(n-1, map.size());
+	}
+
+	@Test
+	void testAgainstHashMap() {
+		LongObjectHashMap<Integer> map = new LongObjectHashMap<Integer>(5);
+		HashMap<Long, Integer> expected = new HashMap<Long, Integer>();
+		Random rnd = new Random(8);
+
+		for(int i = 0; i < 5000; ++i) {
+			long k = (rnd.nextInt(400) - 200) * 0x100000001L;
+			if(rnd.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for(long k : expected.keySet()) {
+			assertEquals(expected.get(k), map.get(k));
+		}
+	}
+
+}
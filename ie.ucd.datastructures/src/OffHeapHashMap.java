@@ -0,0 +1,408 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Map implementation using an open-addressing hash table stored outside the
+ * Java heap.
+ * <p>
+ * Every slot of the table is a fixed-width record in direct memory: one status
+ * byte followed by the serialized key and value. The table is split across as
+ * many direct ByteBuffer chunks as needed, so it may grow well beyond 2GB and
+ * its contents are invisible to the garbage collector. Collisions are resolved
+ * by linear probing with DEFUNCT markers, as in ProbeHashMap, and the table
+ * is rebuilt at its current capacity once DEFUNCT slots make up most of the
+ * load. Keys are
+ * compared in serialized form, so they must serialize identically whenever
+ * they are equal.
+ * <p>
+ * The memory is released deterministically by close(), after which the map
+ * can no longer be used.
+ */
+public class OffHeapHashMap<K, V> extends AbstractHashMap<K, V> implements AutoCloseable {
+
+    // slot status markers
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte DEFUNCT = 2;
+
+    /** Upper bound on the size in bytes of a single direct buffer. */
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    private static final Object UNSAFE; // used to free direct memory, or null
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // memory will instead be returned when the garbage collector runs
+            unsafe = null;
+            invokeCleaner = null;
+        }
+
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final int slotSize; // bytes per slot: status, key, value
+    private final int slotsPerChunk; // slots held by each direct buffer
+    private final ByteBuffer keyScratch; // the serialized form of the probe key
+
+    private ByteBuffer[] arena; // initialized within createTable, null once closed
+    private int defunct; // number of DEFUNCT slots
+
+    /**
+     * Creates an off-heap hash table with capacity 17.
+     *
+     * @param keySerializer   converts keys to and from bytes
+     * @param valueSerializer converts values to and from bytes
+     */
+    public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+
+        this(keySerializer, valueSerializer, 17);
+    }
+
+    /**
+     * Creates an off-heap hash table with the given capacity.
+     *
+     * @param keySerializer   converts keys to and from bytes
+     * @param valueSerializer converts values to and from bytes
+     * @param cap             the initial capacity
+     */
+    public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer, int cap) {
+
+        super(cap);
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        slotSize = 1 + keySerializer.size() + valueSerializer.size();
+        slotsPerChunk = Math.max(1, MAX_CHUNK_BYTES / slotSize);
+        keyScratch = ByteBuffer.allocate(keySerializer.size());
+        createTable();
+    }
+
+    /**
+     * Releases the memory held by the table. Any later access to the map throws
+     * IllegalStateException.
+     */
+    @Override
+    public void close() {
+
+        if (arena != null) {
+
+            release(arena);
+            arena = null;
+            n = 0;
+        }
+    }
+
+    /**
+     * Creates an empty table having length equal to current capacity.
+     */
+    @Override
+    protected void createTable() {
+
+        if (keySerializer == null) {
+
+            return; // called from the superclass constructor; repeated once the layout is known
+        }
+
+        int chunks = (capacity + slotsPerChunk - 1) / slotsPerChunk;
+        arena = new ByteBuffer[chunks];
+
+        for (int c = 0; c < chunks; c++) {
+
+            int slots = Math.min(slotsPerChunk, capacity - c * slotsPerChunk);
+            arena[c] = ByteBuffer.allocateDirect(slots * slotSize); // zeroed, so every slot is EMPTY
+        }
+
+        defunct = 0;
+    }
+
+    /**
+     * Rehashes every entry into a table of the new capacity by copying slots
+     * directly between buffers, then frees the old table.
+     */
+    @Override
+    protected void resize(int newCap) {
+
+        ByteBuffer[] oldArena = arena;
+        int oldCapacity = capacity;
+        capacity = newCap;
+        createTable();
+
+        for (int j = 0; j < oldCapacity; j++) {
+
+            ByteBuffer chunk = oldArena[j / slotsPerChunk];
+            int offset = (j % slotsPerChunk) * slotSize;
+
+            if (chunk.get(offset) == FULL) {
+
+                K k = keySerializer.read(chunk, offset + 1);
+                int slot = -(findSlot(hashValue(k), k) + 1);
+                arena[slot / slotsPerChunk].put((slot % slotsPerChunk) * slotSize, chunk, offset, slotSize);
+            }
+        }
+
+        release(oldArena);
+    }
+
+    /** Returns the buffer holding slot j. */
+    private ByteBuffer chunk(int j) {
+
+        return arena[j / slotsPerChunk];
+    }
+
+    /** Returns the offset of slot j within its buffer. */
+    private int offset(int j) {
+
+        return (j % slotsPerChunk) * slotSize;
+    }
+
+    /** Throws IllegalStateException if the map has been closed. */
+    private void checkOpen() throws IllegalStateException {
+
+        if (arena == null) {
+
+            throw new IllegalStateException("Map has been closed");
+        }
+    }
+
+    /** Tests whether the key stored at slot j has the bytes held in keyScratch. */
+    private boolean keyMatches(int j) {
+
+        ByteBuffer chunk = chunk(j);
+        int start = offset(j) + 1;
+
+        for (int i = 0; i < keyScratch.capacity(); i++) {
+
+            if (chunk.get(start + i) != keyScratch.get(i)) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Searches for an entry with key k, starting at slot h.
+     * <p>
+     * Returns index j with non-negative value if key k was found at slot j, or
+     * -(a+1) where a is the index of the first available slot otherwise.
+     */
+    private int findSlot(int h, K k) {
+
+        keySerializer.write(keyScratch, 0, k);
+        int avail = -1; // no slot available (thus far)
+        int j = h; // index while scanning table
+
+        do {
+
+            byte status = chunk(j).get(offset(j));
+
+            if (status == FULL) {
+
+                if (keyMatches(j)) {
+
+                    return j; // successful match
+                }
+            } else {
+
+                if (avail == -1) {
+
+                    avail = j; // this is the first available
+                }
+
+                if (status == EMPTY) {
+
+                    break; // if empty, search fails immediately
+                }
+            }
+
+            j = (j + 1) % capacity; // keep looking (cyclically)
+        } while (j != h); // stop if we return to the start
+
+        return -(avail + 1); // search has failed
+    }
+
+    /**
+     * Returns value associated with key k in bucket with hash value h. If no such
+     * entry exists, returns null.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return associate value (or null, if no such entry)
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    protected V bucketGet(int h, K k) throws IllegalStateException {
+
+        checkOpen();
+        int j = findSlot(h, k);
+
+        if (j < 0) {
+
+            return null; // no match found
+        }
+
+        return valueSerializer.read(chunk(j), offset(j) + 1 + keySerializer.size());
+    }
+
+    /**
+     * Associates key k with value v in bucket with hash value h, returning the
+     * previously associated value, if any.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @param v the value to be associated
+     * @return previous value associated with k (or null, if no such entry)
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    protected V bucketPut(int h, K k, V v) throws IllegalStateException {
+
+        checkOpen();
+        int j = findSlot(h, k);
+        int valueOffset = 1 + keySerializer.size();
+
+        if (j >= 0) { // this key has an existing entry
+
+            V previousValue = valueSerializer.read(chunk(j), offset(j) + valueOffset);
+            valueSerializer.write(chunk(j), offset(j) + valueOffset, v);
+            return previousValue;
+        }
+
+        j = -(j + 1); // convert to proper index
+        ByteBuffer chunk = chunk(j);
+        int offset = offset(j);
+
+        if (chunk.get(offset) == DEFUNCT) {
+
+            defunct--; // reusing a deactivated slot
+        }
+
+        chunk.put(offset, FULL);
+        chunk.put(offset + 1, keyScratch, 0, keyScratch.capacity());
+        valueSerializer.write(chunk, offset + valueOffset, v);
+        n++;
+        return null;
+    }
+
+    /**
+     * Removes entry having key k from bucket with hash value h, returning the
+     * previously associated value, if found.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return previous value associated with k (or null, if no such entry)
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    protected V bucketRemove(int h, K k) throws IllegalStateException {
+
+        checkOpen();
+        int j = findSlot(h, k);
+
+        if (j < 0) {
+
+            return null; // nothing to remove
+        }
+
+        V previousValue = valueSerializer.read(chunk(j), offset(j) + 1 + keySerializer.size());
+        chunk(j).put(offset(j), DEFUNCT); // mark this slot as deactivated
+        defunct++;
+        n--;
+        return previousValue;
+    }
+
+    /**
+     * Returns the number of DEFUNCT slots, which count towards the load.
+     *
+     * @return the number of DEFUNCT slots in the table
+     */
+    @Override
+    protected int tombstones() {
+
+        return defunct;
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map. The
+     * entries are copies read from the table.
+     *
+     * @return iterable collection of the map's entries
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() throws IllegalStateException {
+
+        checkOpen();
+        ArrayList<Entry<K, V>> temporary = new ArrayList<>(n);
+
+        for (int j = 0; j < capacity; j++) {
+
+            ByteBuffer chunk = chunk(j);
+            int offset = offset(j);
+
+            if (chunk.get(offset) == FULL) {
+
+                K k = keySerializer.read(chunk, offset + 1);
+                V v = valueSerializer.read(chunk, offset + 1 + keySerializer.size());
+                temporary.add(new MapEntry<>(k, v));
+            }
+        }
+
+        return temporary;
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+    /** Frees the memory of the given direct buffers, if the runtime allows it. */
+    private static void release(ByteBuffer[] buffers) {
+
+        if (INVOKE_CLEANER == null) {
+
+            return;
+        }
+
+        try {
+
+            for (ByteBuffer buffer : buffers) {
+
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            }
+        } catch (ReflectiveOperationException e) {
+
+            // leave the remaining buffers to the garbage collector
+        }
+    }
+
+    public static void main(String[] args) {
+
+        try (OffHeapHashMap<Long, Double> m = new OffHeapHashMap<>(Serializer.LONG, Serializer.DOUBLE)) {
+
+            for (long i = 0; i < 10; i++) {
+
+                m.put(i * i, Math.sqrt(i));
+            }
+
+            System.out.println("m: " + m);
+            System.out.println("m.get(49): " + m.get(49L));
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapHashMapTest {
+
+	@Test
+	void testGet() {
+		try (OffHeapHashMap<Long, Integer> map = new OffHeapHashMap<Long, Integer>(Serializer.LONG, Serializer.INTEGER)) {
+			int n = 10;
+			for(int i = 0; i < n; ++i) {
+				map.put((long) i, i);
+			}
+			assertEquals(n, map.size());
+			assertEquals(5, map.get(5L));
+			assertEquals(null, map.get(12L));
+		}
+	}
+
+	@Test
+	void testPutReplaces() {
+		try (OffHeapHashMap<Long, Integer> map = new OffHeapHashMap<Long, Integer>(Serializer.LONG, Serializer.INTEGER)) {
+			assertEquals(null, map.put(3L, 1));
+			assertEquals(1, map.put(3L, 2));
+			assertEquals(2, map.get(3L));
+			assertEquals(1, map.size());
+		}
+	}
+
+	@Test
+	void testRemove() {
+		try (OffHeapHashMap<Long, Integer> map = new OffHeapHashMap<Long, Integer>(Serializer.LONG, Serializer.INTEGER, 3)) {
+			int n = 1000;
+			for(int i = 0; i < n; ++i) {
+				map.put((long) i, i);
+			}
+			for(int i = 0; i < n; i += 2) {
+				assertEquals(i, map.remove((long) i));
+			}
+			assertEquals(n / 2, map.size());
+			for(int i = 0; i < n; ++i) {
+				assertEquals(i % 2 == 0 ? null : i, map.get((long) i));
+			}
+		}
+	}
+
+	@Test
+	void testKeySet() {
+		try (OffHeapHashMap<Long, Integer> map = new OffHeapHashMap<Long, Integer>(Serializer.LONG, Serializer.INTEGER)) {
+			map.put(1L, 1);
+			map.put(2L, 2);
+			map.put(3L, 3);
+			ArrayList<Long> buf = new ArrayList<>();
+			for(Long k : map.keySet()) buf.add(k);
+			buf.sort(new DefaultComparator<Long>());
+			assertEquals("[1, 2, 3]", buf.toString());
+		}
+	}
+
+	@Test
+	void testClose() {
+		OffHeapHashMap<Long, Integer> map = new OffHeapHashMap<Long, Integer>(Serializer.LONG, Serializer.INTEGER);
+		map.put(1L, 1);
+		map.close();
+		assertEquals(0, map.size());
+		assertThrows(IllegalStateException.class, () -> map.get(1L));
+		map.close();
+	}
+
+	@Test
+	void testChurn() {
+		try (OffHeapHashMap<Long, Integer> map = new OffHeapHashMap<Long, Integer>(Serializer.LONG, Serializer.INTEGER)) {
+			map.enableStats();
+			for(int i = 0; i < 10000; ++i) {
+				map.put((long) i, i);
+				if(i >= 5) {
+					assertEquals(i - 5, map.remove((long) i - 5));
+				}
+				// DEFUNCT slots count towards the load, so they never fill the table
+				assertTrue(map.size() + map.tombstones() <= 16);
+			}
+			assertEquals(5, map.size());
+			assertEquals(null, map.get(0L));
+			assertEquals(9999, map.get(9999L));
+			// one doubling, after which the removed slots are cleared by rebuilds at
+			// the same capacity rather than by growing the table
+			assertEquals(33, map.getStats().getCapacity());
+		}
+	}
+
+}
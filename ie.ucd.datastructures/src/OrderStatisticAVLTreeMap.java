@@ -0,0 +1,48 @@
+import java.util.Comparator;
+
+/**
+ * An AVL tree map that also answers order-statistic queries.
+ * <p>
+ * The map is built on an OrderStatisticTree, whose nodes record the size of
+ * their subtree, so rank, select and countInRange each follow a single
+ * O(log n) root-to-leaf path instead of scanning the entries.
+ */
+public class OrderStatisticAVLTreeMap<K, V> extends AVLTreeMap<K, V> implements OrderStatisticMap<K, V> {
+
+    /**
+     * Constructs an empty map using the natural ordering of keys.
+     */
+    public OrderStatisticAVLTreeMap() {
+        super();
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public OrderStatisticAVLTreeMap(Comparator<K> comp) {
+        super(comp);
+    }
+
+    @Override
+    protected BalanceableBinaryTree<K, V> createTree() {
+        return new OrderStatisticTree<>();
+    }
+
+    // Returns the tree created by createTree
+    private OrderStatisticTree<K, V> sizedTree() {
+        return (OrderStatisticTree<K, V>) tree;
+    }
+
+    @Override
+    public int rank(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return sizedTree().rankOfCeiling(ceilingNode(key, true));
+    }
+
+    @Override
+    public Entry<K, V> select(int i) throws IndexOutOfBoundsException {
+        return sizedTree().entryAt(i);
+    }
+}
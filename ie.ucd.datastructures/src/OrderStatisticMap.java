@@ -0,0 +1,39 @@
+/**
+ * Interface for a sorted map that can also find entries by their index in
+ * sorted order.
+ */
+public interface OrderStatisticMap<K, V> extends SortedMap<K, V> {
+
+    /**
+     * Returns the number of keys in the map that are strictly less than the given
+     * key, i.e. the index the key has, or would have, in sorted order.
+     *
+     * @param key the key of interest
+     * @return the rank of key
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    int rank(K key) throws IllegalArgumentException;
+
+    /**
+     * Returns the entry at the given index in sorted order.
+     *
+     * @param i the index, from 0 to size() - 1
+     * @return the entry with exactly i smaller keys
+     * @throws IndexOutOfBoundsException if i is not a valid index
+     */
+    Entry<K, V> select(int i) throws IndexOutOfBoundsException;
+
+    /**
+     * Returns the number of keys in the range from fromKey inclusive to toKey
+     * exclusive, the same range as subMap(fromKey, toKey).
+     *
+     * @param fromKey low end of the range
+     * @param toKey   high end of the range
+     * @return the number of keys in the range (0 if toKey is not above fromKey)
+     * @throws IllegalArgumentException if fromKey or toKey is not compatible with
+     *                                  the map
+     */
+    default int countInRange(K fromKey, K toKey) throws IllegalArgumentException {
+        return Math.max(0, rank(toKey) - rank(fromKey));
+    }
+}
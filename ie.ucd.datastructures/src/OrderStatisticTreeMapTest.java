@@ -0,0 +1,68 @@
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderStatisticTreeMapTest {
+
+	private static <V> OrderStatisticMap<Integer, V> create(String balance) {
+		return balance.equals("AVL") ? new OrderStatisticAVLTreeMap<>() : new OrderStatisticRBTreeMap<>();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "AVL", "RB" })
+	void testRankSelect(String balance) {
+		OrderStatisticMap<Integer, String> map = create(balance);
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals(0, map.rank(1));
+		assertEquals(0, map.rank(-5));
+		assertEquals(4, map.rank(12));
+		assertEquals(5, map.rank(13));
+		assertEquals(12, map.rank(100));
+		assertEquals("1", map.select(0).getValue());
+		assertEquals("12", map.select(4).getValue());
+		assertEquals("35", map.select(11).getValue());
+		assertThrows(IndexOutOfBoundsException.class, () -> map.select(12));
+		assertThrows(IndexOutOfBoundsException.class, () -> map.select(-1));
+		assertEquals(7, map.countInRange(12, 34));
+		assertEquals(0, map.countInRange(34, 12));
+
+		map.remove(12);
+		assertEquals(4, map.rank(13));
+		assertEquals("15", map.select(4).getValue());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "AVL", "RB" })
+	void testRandomOperations(String balance) {
+		OrderStatisticMap<Integer, Integer> map = create(balance);
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		java.util.Random rnd = new java.util.Random(17);
+
+		for (int i = 0; i < 20000; ++i) {
+			int k = rnd.nextInt(1000);
+			if (rnd.nextInt(3) > 0) {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			} else {
+				assertEquals(expected.remove(k), map.remove(k));
+			}
+
+			int from = rnd.nextInt(1000);
+			int to = rnd.nextInt(1000);
+			assertEquals(expected.headMap(from).size(), map.rank(from));
+			assertEquals(from < to ? expected.subMap(from, to).size() : 0, map.countInRange(from, to));
+			if (!expected.isEmpty()) {
+				int index = rnd.nextInt(expected.size());
+				assertEquals(map.rank(map.select(index).getKey()), index);
+			}
+		}
+		assertEquals(expected.size(), map.size());
+	}
+
+}
@@ -0,0 +1,287 @@
+import java.util.ArrayList;
+
+/**
+ * Map implementation using hash table with linear probing (open addressing).
+ * <p>
+ * Keys and values are kept in two parallel arrays rather than in per-bucket
+ * entry objects, so a lookup is a walk over consecutive array cells starting at
+ * the hashed slot. Removed slots are marked with a DEFUNCT sentinel so that
+ * later probe sequences continue past them. DEFUNCT slots count towards the
+ * load factor, and once they make up most of it the table is rebuilt at its
+ * current capacity, so repeated insertions and removals cannot fill the table
+ * with sentinels.
+ */
+public class ProbeHashMap<K, V> extends AbstractHashMap<K, V> {
+
+    // sentinel marking a slot whose entry has been removed
+    private static final Object DEFUNCT = new Object();
+
+    private Object[] keys; // initialized within createTable
+    private Object[] values; // initialized within createTable
+    private int defunct = 0; // number of slots holding DEFUNCT
+
+    /**
+     * Creates a hash table with capacity 17 and prime factor 109345121.
+     */
+    public ProbeHashMap() {
+
+        super();
+    }
+
+    /**
+     * Creates a hash table with given capacity and prime factor 109345121.
+     */
+    public ProbeHashMap(int cap) {
+
+        super(cap);
+    }
+
+    /**
+     * Creates a hash table with the given capacity and prime factor.
+     */
+    public ProbeHashMap(int cap, int p) {
+
+        super(cap, p);
+    }
+
+    /**
+     * Creates a hash table holding the given keys and values, sized so that no
+     * resize occurs while they are inserted.
+     *
+     * @param keys   the keys to insert
+     * @param values the values, values[i] being associated with keys[i]
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public ProbeHashMap(K[] keys, V[] values) throws IllegalArgumentException {
+
+        super(Math.max(17, 2 * keys.length + 1));
+
+        if (keys.length != values.length) {
+
+            throw new IllegalArgumentException("Keys and values differ in length");
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+
+            put(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Creates a hash table holding the given entries, sized once up front when
+     * their number is known.
+     *
+     * @param entries the entries to insert
+     */
+    public ProbeHashMap(Iterable<Entry<K, V>> entries) {
+
+        super();
+        putAll(entries);
+    }
+
+    public static void main(String[] args) {
+
+        ProbeHashMap<Integer, String> m = new ProbeHashMap<Integer, String>();
+        m.put(1, "One");
+        m.put(10, "Ten");
+        m.put(11, "Eleven");
+        m.put(20, "Twenty");
+        System.out.println("m: " + m);
+        m.remove(11);
+        System.out.println("m: " + m);
+    }
+
+    /**
+     * Creates an empty table having length equal to current capacity.
+     */
+    @Override
+    protected void createTable() {
+
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        defunct = 0;
+    }
+
+    /** Returns true if location is either empty or the "defunct" sentinel. */
+    private boolean isAvailable(int j) {
+
+        return (keys[j] == null || keys[j] == DEFUNCT);
+    }
+
+    /**
+     * Searches for an entry with key k, starting at slot h.
+     * <p>
+     * Returns index j with non-negative value if key k was found at slot j, or
+     * -(a+1) where a is the index of the first available slot otherwise.
+     */
+    private int findSlot(int h, K k) {
+
+        int avail = -1; // no slot available (thus far)
+        int j = h; // index while scanning table
+
+        do {
+
+            if (isAvailable(j)) {
+
+                if (avail == -1) {
+
+                    avail = j; // this is the first available
+                }
+
+                if (keys[j] == null) {
+
+                    break; // if empty, search fails immediately
+                }
+            } else if (keys[j].equals(k)) {
+
+                return j; // successful match
+            }
+
+            j = (j + 1) % capacity; // keep looking (cyclically)
+        } while (j != h); // stop if we return to the start
+
+        return -(avail + 1); // search has failed
+    }
+
+    /**
+     * Returns value associated with key k in bucket with hash value h. If no such
+     * entry exists, returns null.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return associate value (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketGet(int h, K k) {
+
+        int j = findSlot(h, k);
+
+        if (j < 0) {
+
+            return null; // no match found
+        }
+
+        return (V) values[j];
+    }
+
+    /**
+     * Associates key k with value v in bucket with hash value h, returning the
+     * previously associated value, if any.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @param v the value to be associated
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketPut(int h, K k, V v) {
+
+        int j = findSlot(h, k);
+
+        if (j >= 0) { // this key has an existing entry
+
+            V previousValue = (V) values[j];
+            values[j] = v;
+            return previousValue;
+        }
+
+        j = -(j + 1); // convert to proper index
+
+        if (keys[j] == DEFUNCT) {
+
+            defunct--; // reusing a deactivated slot
+        }
+
+        keys[j] = k; // new entry
+        values[j] = v;
+        n++;
+        return null;
+    }
+
+    /**
+     * Removes entry having key k from bucket with hash value h, returning the
+     * previously associated value, if found.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketRemove(int h, K k) {
+
+        int j = findSlot(h, k);
+
+        if (j < 0) {
+
+            return null; // nothing to remove
+        }
+
+        V previousValue = (V) values[j];
+        keys[j] = DEFUNCT; // mark this slot as deactivated
+        values[j] = null;
+        defunct++;
+        n--;
+        return previousValue;
+    }
+
+    /**
+     * Returns the number of DEFUNCT slots, which count towards the load.
+     *
+     * @return the number of DEFUNCT slots in the table
+     */
+    @Override
+    protected int tombstones() {
+
+        return defunct;
+    }
+
+    /**
+     * Records, for every entry, the number of slots probed to reach it.
+     *
+     * @param stats the statistics to record into
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected void collectStats(HashMapStats stats) {
+
+        for (int j = 0; j < capacity; j++) {
+
+            if (!isAvailable(j)) {
+
+                int home = hashValue((K) keys[j]);
+                stats.record((j - home + capacity) % capacity + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    public Iterable<Entry<K, V>> entrySet() {
+
+        ArrayList<Entry<K, V>> temporary = new ArrayList<>(n);
+
+        for (int j = 0; j < keys.length; j++) {
+
+            if (!isAvailable(j)) {
+
+                temporary.add(new MapEntry<>((K) keys[j], (V) values[j]));
+            }
+        }
+
+        return temporary;
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+}
@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProbeHashMapTest {
+
+	@Test
+	void testSize() {
+		ProbeHashMap<Integer, String> map = new ProbeHashMap<Integer, String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.get("5"));
+		assertEquals(2, map.get("2"));
+	}
+
+	@Test
+	void testRemove() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.remove("5"));
+		assertEquals(n-1, map.size());
+	}
+
+	@Test
+	void testPut() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(n, map.size());		
+	}
+
+	@Test
+	void testIsEmpty() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		assertEquals(true, map.isEmpty());
+		
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(false, map.isEmpty());	
+	}
+
+	@Test
+	void testKeySet() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		map.put("one", 1);
+		map.put("two", 2);
+		map.put("three", 3);
+		ArrayList<String> buf = new ArrayList<>();
+		for(String s : map.keySet()) buf.add(s);
+		buf.sort(new DefaultComparator<String>());
+		assertEquals("[one, three, two]", buf.toString());
+	}
+
+	@Test
+	void testValues() {
+		ProbeHashMap<String, Integer> map = new ProbeHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer s : map.values()) buf.add(s);
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
+	}
+
+	@Test
+	void testRemoveThenGet() {
+		ProbeHashMap<Integer, String> map = new ProbeHashMap<Integer, String>(7);
+
+		int n = 50;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		for(int i = 0; i < n; i += 2) {
+			assertEquals(Integer.toString(i), map.remove(i));
+		}
+		for(int i = 1; i < n; i += 2) {
+			assertEquals(Integer.toString(i), map.get(i));
+		}
+		assertEquals(null, map.get(0));
+		assertEquals(n/2, map.size());
+	}
+
+	@Test
+	void testStats() {
+		ProbeHashMap<Integer, String> map = new ProbeHashMap<Integer, String>();
+
+		map.enableStats();
+		int n = 30;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		HashMapStats stats = map.getStats();
+		int samples = 0;
+		for(int count : stats.getHistogram()) samples += count;
+		assertEquals(n, samples);
+		assertEquals(0, stats.getHistogram()[0]);
+		assertEquals(2, stats.getResizeCount());
+	}
+
+	@Test
+	void testChurn() {
+		ProbeHashMap<Integer, String> map = new ProbeHashMap<Integer, String>();
+
+		map.enableStats();
+		for(int i = 0; i < 10000; ++i) {
+			map.put(i, Integer.toString(i));
+			if(i >= 5) {
+				assertEquals(Integer.toString(i - 5), map.remove(i - 5));
+			}
+			// DEFUNCT slots count towards the load, so they never fill the table
+			assertTrue(map.size() + map.tombstones() <= 16);
+		}
+		assertEquals(5, map.size());
+		assertEquals(null, map.get(0));
+		assertEquals("9999", map.get(9999));
+		// one doubling, after which the removed slots are cleared by rebuilds at
+		// the same capacity rather than by growing the table
+		assertEquals(33, map.getStats().getCapacity());
+	}
+
+}
@@ -19,10 +19,15 @@ public class RBTreeMap<K,V> extends TreeMap<K,V> {
     public RBTreeMap(Comparator<K> comp) { super(comp); }
 
     // we use the inherited aux field with convention that 0=black and 1=red
-    // (note that new leaves will be black by default, as aux=0)
-    private boolean isBlack(Position<Entry<K,V>> p) { return tree.getAux(p)==0;}
+    // (note that missing children count as black leaves)
+    private boolean isBlack(Position<Entry<K,V>> p) { return p==null || tree.getAux(p)==0;}
 
-    private boolean isRed(Position<Entry<K,V>> p) { return tree.getAux(p)==1; }
+    private boolean isRed(Position<Entry<K,V>> p) { return p!=null && tree.getAux(p)==1; }
+
+    /** Returns the other child of parent than p, which may be a missing child. */
+    private Position<Entry<K,V>> sibling(Position<Entry<K,V>> parent, Position<Entry<K,V>> p) {
+        return (left(parent) == p) ? right(parent) : left(parent);
+    }
 
     private void makeBlack(Position<Entry<K,V>> p) { tree.setAux(p, 0); }
 
@@ -66,20 +71,22 @@ public class RBTreeMap<K,V> extends TreeMap<K,V> {
 
     /** Overrides the TreeMap rebalancing hook that is called after a deletion. */
     @Override
-    protected void rebalanceDelete(Position<Entry<K,V>> p) {
+    protected void rebalanceDelete(Position<Entry<K,V>> parent, Position<Entry<K,V>> p) {
         if (isRed(p))                        // deleted parent was black
             makeBlack(p);                      // so this restores black depth
-        else if (!isRoot(p)) {
-            Position<Entry<K,V>> sib = sibling(p);
+        else if (parent != null) {
+            Position<Entry<K,V>> sib = sibling(parent, p);
             if (isInternal(sib) && (isBlack(sib) || isInternal(left(sib))))
-                remedyDoubleBlack(p);            // sib's subtree has nonzero black height
+                remedyDoubleBlack(parent, p);    // sib's subtree has nonzero black height
         }
     }
 
-    /** Remedies a presumed double-black violation at the given (nonroot) position. */
-    private void remedyDoubleBlack(Position<Entry<K,V>> p) {
-        Position<Entry<K,V>> z = parent(p);
-        Position<Entry<K,V>> y = sibling(p);
+    /**
+     * Remedies a presumed double-black violation at the given (nonroot) position,
+     * which may be a missing child of z.
+     */
+    private void remedyDoubleBlack(Position<Entry<K,V>> z, Position<Entry<K,V>> p) {
+        Position<Entry<K,V>> y = sibling(z, p);
         if (isBlack(y)) {
             if (isRed(left(y)) || isRed(right(y))) { // Case 1: trinode restructuring
                 Position<Entry<K,V>> x = (isRed(left(y)) ? left(y) : right(y));
@@ -92,13 +99,13 @@ public class RBTreeMap<K,V> extends TreeMap<K,V> {
                 if (isRed(z))
                     makeBlack(z);                  // problem is resolved
                 else if (!isRoot(z))
-                    remedyDoubleBlack(z);          // propagate the problem
+                    remedyDoubleBlack(parent(z), z); // propagate the problem
             }
         } else {                             // Case 3: reorient 3-node
             rotate(y);
             makeBlack(y);
             makeRed(z);
-            remedyDoubleBlack(p);              // restart the process at p
+            remedyDoubleBlack(z, p);           // restart the process at p
         }
     }
 
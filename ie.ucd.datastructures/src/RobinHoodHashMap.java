@@ -0,0 +1,259 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Map implementation using hash table with Robin Hood linear probing.
+ * <p>
+ * Every occupied slot records its probe distance, i.e. how far the entry sits
+ * from the slot its key hashes to. On insertion an entry that has travelled
+ * further than the occupant of a slot takes that slot, and the occupant moves
+ * on instead. This keeps probe sequences short and even, so the table can be
+ * run at a load factor of around 0.9 rather than 0.5. Removal shifts the
+ * following run of entries back by one slot instead of leaving a tombstone.
+ */
+public class RobinHoodHashMap<K, V> extends AbstractHashMap<K, V> {
+
+    /** Load factor used when none is given. */
+    public static final double DEFAULT_MAX_LOAD = 0.875;
+
+    private Object[] keys; // initialized within createTable
+    private Object[] values; // initialized within createTable
+    private int[] probe; // probe distance of each slot, -1 if empty
+
+    private final double loadLimit;
+
+    /**
+     * Creates a hash table with capacity 17 and prime factor 109345121.
+     */
+    public RobinHoodHashMap() {
+
+        this(17);
+    }
+
+    /**
+     * Creates a hash table with given capacity and prime factor 109345121.
+     */
+    public RobinHoodHashMap(int cap) {
+
+        this(cap, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * Creates a hash table with given capacity that is resized once the load
+     * factor exceeds maxLoad.
+     *
+     * @param cap     the initial capacity
+     * @param maxLoad the load factor that triggers a resize, in (0, 1)
+     * @throws IllegalArgumentException if maxLoad is not in (0, 1)
+     */
+    public RobinHoodHashMap(int cap, double maxLoad) throws IllegalArgumentException {
+
+        super(cap);
+
+        if (maxLoad <= 0 || maxLoad >= 1) {
+
+            throw new IllegalArgumentException("Load factor must be between 0 and 1");
+        }
+
+        loadLimit = maxLoad;
+    }
+
+    /**
+     * Creates an empty table having length equal to current capacity.
+     */
+    @Override
+    protected void createTable() {
+
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        probe = new int[capacity];
+        Arrays.fill(probe, -1);
+    }
+
+    /**
+     * Returns the load factor above which the table is doubled in size.
+     *
+     * @return the maximum ratio of entries to capacity before resizing
+     */
+    @Override
+    protected double maxLoad() {
+
+        return loadLimit;
+    }
+
+    /**
+     * Returns the slot holding key k, starting the search at slot h, or -1 if
+     * the key is not present. The search stops as soon as it reaches a slot
+     * whose occupant is closer to home than k would be, since k would have
+     * displaced that occupant on insertion.
+     */
+    private int findSlot(int h, K k) {
+
+        int j = h;
+
+        for (int d = 0; d <= probe[j]; d++) {
+
+            if (keys[j].equals(k)) {
+
+                return j;
+            }
+
+            j = (j + 1) % capacity;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns value associated with key k in bucket with hash value h. If no such
+     * entry exists, returns null.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return associate value (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketGet(int h, K k) {
+
+        int j = findSlot(h, k);
+        return (j < 0) ? null : (V) values[j];
+    }
+
+    /**
+     * Associates key k with value v in bucket with hash value h, returning the
+     * previously associated value, if any.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @param v the value to be associated
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketPut(int h, K k, V v) {
+
+        int j = findSlot(h, k);
+
+        if (j >= 0) { // this key has an existing entry
+
+            V previousValue = (V) values[j];
+            values[j] = v;
+            return previousValue;
+        }
+
+        Object key = k; // the entry currently looking for a slot
+        Object value = v;
+        int d = 0;
+        j = h;
+
+        while (probe[j] != -1) {
+
+            if (probe[j] < d) { // the occupant is richer, so it gives up its slot
+
+                Object displacedKey = keys[j];
+                Object displacedValue = values[j];
+                int displacedProbe = probe[j];
+                keys[j] = key;
+                values[j] = value;
+                probe[j] = d;
+                key = displacedKey;
+                value = displacedValue;
+                d = displacedProbe;
+            }
+
+            j = (j + 1) % capacity;
+            d++;
+        }
+
+        keys[j] = key;
+        values[j] = value;
+        probe[j] = d;
+        n++;
+        return null;
+    }
+
+    /**
+     * Removes entry having key k from bucket with hash value h, returning the
+     * previously associated value, if found.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketRemove(int h, K k) {
+
+        int j = findSlot(h, k);
+
+        if (j < 0) {
+
+            return null; // nothing to remove
+        }
+
+        V previousValue = (V) values[j];
+        int next = (j + 1) % capacity;
+
+        // shift the following entries back until one is already at home
+        while (probe[next] > 0) {
+
+            keys[j] = keys[next];
+            values[j] = values[next];
+            probe[j] = probe[next] - 1;
+            j = next;
+            next = (next + 1) % capacity;
+        }
+
+        keys[j] = null;
+        values[j] = null;
+        probe[j] = -1;
+        n--;
+        return previousValue;
+    }
+
+    /**
+     * Records, for every entry, the number of slots probed to reach it.
+     *
+     * @param stats the statistics to record into
+     */
+    @Override
+    protected void collectStats(HashMapStats stats) {
+
+        for (int j = 0; j < capacity; j++) {
+
+            if (probe[j] != -1) {
+
+                stats.record(probe[j] + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    public Iterable<Entry<K, V>> entrySet() {
+
+        ArrayList<Entry<K, V>> temporary = new ArrayList<>(n);
+
+        for (int j = 0; j < keys.length; j++) {
+
+            if (probe[j] != -1) {
+
+                temporary.add(new MapEntry<>((K) keys[j], (V) values[j]));
+            }
+        }
+
+        return temporary;
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+}
@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RobinHoodHashMapTest {
+
+	@Test
+	void testSize() {
+		RobinHoodHashMap<Integer, String> map = new RobinHoodHashMap<Integer, String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.get("5"));
+		assertEquals(2, map.get("2"));
+	}
+
+	@Test
+	void testRemove() {
+		RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.remove("5"));
+		assertEquals(n-1, map.size());
+	}
+
+	@Test
+	void testPut() {
+		RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(n, map.size());		
+	}
+
+	@Test
+	void testIsEmpty() {
+		RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<String, Integer>();
+
+		assertEquals(true, map.isEmpty());
+		
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(false, map.isEmpty());	
+	}
+
+	@Test
+	void testKeySet() {
+		RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<String, Integer>();
+
+		map.put("one", 1);
+		map.put("two", 2);
+		map.put("three", 3);
+		ArrayList<String> buf = new ArrayList<>();
+		for(String s : map.keySet()) buf.add(s);
+		buf.sort(new DefaultComparator<String>());
+		assertEquals("[one, three, two]", buf.toString());
+	}
+
+	@Test
+	void testValues() {
+		RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer s : map.values()) buf.add(s);
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
+	}
+
+	@Test
+	void testRemoveThenGet() {
+		RobinHoodHashMap<Integer, String> map = new RobinHoodHashMap<Integer, String>(7);
+
+		int n = 50;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		for(int i = 0; i < n; i += 2) {
+			assertEquals(Integer.toString(i), map.remove(i));
+		}
+		for(int i = 1; i < n; i += 2) {
+			assertEquals(Integer.toString(i), map.get(i));
+		}
+		assertEquals(null, map.get(0));
+		assertEquals(n/2, map.size());
+	}
+
+	@Test
+	void testHighLoadAgainstHashMap() {
+		RobinHoodHashMap<Integer, Integer> map = new RobinHoodHashMap<Integer, Integer>(11, 0.9);
+		HashMap<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		Random rnd = new Random(20);
+
+		for(int i = 0; i < 5000; ++i) {
+			int k = rnd.nextInt(500);
+			if(rnd.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for(int k = 0; k < 500; ++k) {
+			assertEquals(expected.get(k), map.get(k));
+		}
+	}
+
+}
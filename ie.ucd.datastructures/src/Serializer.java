@@ -0,0 +1,78 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for converting values of a fixed-width type to and from bytes, so
+ * that a container can store them outside the Java heap.
+ */
+public interface Serializer<T> {
+
+    /**
+     * Returns the number of bytes every serialized value occupies.
+     *
+     * @return the fixed width of a serialized value
+     */
+    int size();
+
+    /**
+     * Writes value into buffer starting at the given absolute offset.
+     *
+     * @param buffer the destination buffer
+     * @param offset the index of the first byte to write
+     * @param value  the value to write
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * Reads a value from buffer starting at the given absolute offset.
+     *
+     * @param buffer the source buffer
+     * @param offset the index of the first byte to read
+     * @return the value stored at offset
+     */
+    T read(ByteBuffer buffer, int offset);
+
+    /** Serializer for Integer values, as 4 bytes. */
+    Serializer<Integer> INTEGER = new Serializer<Integer>() {
+        public int size() {
+            return Integer.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /** Serializer for Long values, as 8 bytes. */
+    Serializer<Long> LONG = new Serializer<Long>() {
+        public int size() {
+            return Long.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /** Serializer for Double values, as 8 bytes. */
+    Serializer<Double> DOUBLE = new Serializer<Double>() {
+        public int size() {
+            return Double.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Double value) {
+            buffer.putDouble(offset, value);
+        }
+
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+}
@@ -1,12 +1,15 @@
 //import java.util.AbstractMap;
 import java.util.*;
 
-public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K, V> {
+public class SkipList<K extends Comparable<? super K>, V> extends AbstractSortedMap<K, V> {
 
-    private static class SkipListNode<K, V> {
-        private K key;
-        private V value;
-        public ArrayList<SkipListNode<K, V> > nextNodes;
+    // Each node holds its tower of next pointers in a plain array sized to the
+    // node's level, so a hop is a single array load. Nodes are handed out as
+    // the entries of the map.
+    protected static class SkipListNode<K, V> implements Entry<K, V> {
+        protected K key;
+        protected V value;
+        protected SkipListNode<K, V>[] next; // next[i] is the following node on level i
 
         public K getKey() {
             return key;
@@ -16,14 +19,15 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
             return value;
         }
 
-        public SkipListNode(K key, V value) {
+        @SuppressWarnings({ "unchecked" })
+        public SkipListNode(K key, V value, int level) {
             this.value = value;
             this.key = key;
-            nextNodes = new ArrayList<SkipListNode<K, V> >();
+            next = (SkipListNode<K, V>[]) new SkipListNode[level + 1];
         }
 
         public int level() {
-            return nextNodes.size()-1;
+            return next.length-1;
         }
 
         public String toString() {
@@ -32,127 +36,225 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
     }
 
 
-    private SkipListNode<K,V> head;
-    private int maxLevel;
-    private int size;
+    protected SkipListNode<K,V> head;
+    protected int maxLevel;
+    protected int size;
     private Random rnd;
 
     //private static final double PROBABILITY = 0.5;
-    private Comparator<K> comp;
 
-    protected SkipList(Comparator<K> c) { comp = c; }
-
-
-    /** Method for comparing two entries according to key */
-    protected int compare(K a, K b) {
-        return comp.compare(a, b);
+    protected SkipList(Comparator<K> c) {
+        super(c);
+        rnd = new Random();
+        size = 0;
+        maxLevel = 0;
+        // a SkipListNode with key null marks the beginning; a null pointer marks the end
+        head = createNode(null, null, 0);
     }
 
+
     public SkipList() {
         this(new DefaultComparator<K>());
-        rnd = new Random();
-        size = 0;
-        maxLevel = 0;
-        // a SkipListNode with value null marks the beginning
-        head = new SkipListNode<K, V>(null, null);
-        // null marks the end
-        head.nextNodes.add(null);
     }
 
     public SkipListNode<K, V> getHead() {
         return head;
     }
 
-    // Adds e to the skiplist.
-    // Returns false if already in skiplist, true otherwise.
+    // Creates a node with a tower of the given level. Subclasses may return
+    // nodes carrying extra per-level data.
+    protected SkipListNode<K, V> createNode(K key, V value, int level) {
+        return new SkipListNode<K, V>(key, value, level);
+    }
+
+    // Returns a random level, each level being half as likely as the one below
+    private int randomLevel() {
+        int level = 0;
+        while(rnd.nextBoolean()==false) {
+            level++;
+        }
+        return level;
+    }
+
+    // Associates v with k, replacing and returning any previous value.
+    // Returns null if k was not in the skiplist.
     @Override
+    @SuppressWarnings({ "unchecked" })
     public V put(K k, V v) {
-       
-    	SkipListNode<K, V> node= find(k);
-    	
-    	
-    	if(node!=null && node.value!=null && (compare(k, node.getKey())==0)){
-    		return node.getValue();
-    	}
-    	
-    	
-    	int level=0;
-    	while(rnd.nextBoolean()==false) {
-    		level++;
+
+    	SkipListNode<K, V>[] update = (SkipListNode<K, V>[]) new SkipListNode[maxLevel+1];
+    	SkipListNode<K, V> node = findLower(k, update).next[0];
+
+    	if(node != null && compare(k, node.getKey())==0){
+    		V old = node.value;
+    		node.value = v;
+    		return old;
     	}
-    	
-    	
-    	while(level > maxLevel) {
-    		maxLevel++;
-    		head.nextNodes.add(null);
+
+    	int level = randomLevel();
+
+    	if(level > maxLevel) { // the new levels start at the head
+    		update = Arrays.copyOf(update, level+1);
+    		Arrays.fill(update, maxLevel+1, level+1, head);
+    		raiseLevel(level);
     	}
-    	
-    	SkipListNode<K, V> newNode = new SkipListNode<K, V>(k, v);
-    	SkipListNode<K, V> current = head;
-    	
-    	
-    	do {
-
-    		current=findNext(k, current, level);
-    		newNode.nextNodes.add(0, current.nextNodes.get(level));
-    		current.nextNodes.set(level, newNode);
-
-    	}while(level-->0);
-    	
-    	
+
+    	link(createNode(k, v, level), update);
     	size++;
-    	return v;
+    	return null;
     }
 
     @Override
+    @SuppressWarnings({ "unchecked" })
     public V remove(K key) {
-    	
-    	SkipListNode<K, V> node = find(key);
-    	
-     	if(node == null || node.value == null || (compare(key, node.getKey())!=0)){
+
+     	SkipListNode<K, V>[] update = (SkipListNode<K, V>[]) new SkipListNode[maxLevel+1];
+     	SkipListNode<K, V> node = findLower(key, update).next[0];
+
+     	if(node == null || compare(key, node.getKey())!=0) {
      		return null;
      	}
 
-     	int level = node.level();
-     	
-     	V value = node.getValue();
-     	SkipListNode<K, V> current = head;
-     	
-     	
-     	do {
-     		while(compare(key, current.nextNodes.get(level).getKey())<0) {
-     			
-     			current.nextNodes.remove(node);
-     			
-     		}
-    		
-     	}while(level-- > 0);
-     	
+     	unlink(node, update);
+
+     	while(maxLevel > 0 && head.next[maxLevel] == null) {
+     		maxLevel--;
+     	}
+
      	size--;
-        return value;
+        return node.getValue();
+    }
+
+    // Raises maxLevel to level, extending the head's tower to match
+    protected void raiseLevel(int level) {
+        maxLevel = level;
+        head.next = Arrays.copyOf(head.next, maxLevel+1);
+    }
+
+    // Links node in after update[i] on each level of its tower, where update[i]
+    // is the last node before it on level i, as filled in by findLower
+    protected void link(SkipListNode<K, V> node, SkipListNode<K, V>[] update) {
+        for(int i = 0; i <= node.level(); i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+        }
     }
 
+    // Unlinks node from each level of its tower, update[i] being the last node
+    // before it on level i
+    protected void unlink(SkipListNode<K, V> node, SkipListNode<K, V>[] update) {
+        for(int i = 0; i <= node.level(); i++) {
+            update[i].next[i] = node.next[i];
+        }
+    }
+
+    // Iterates over level 0 from a given node, stopping before the first key
+    // that is not less than toKey (if any)
+    protected class EntryIterator implements Iterator<Entry<K, V>> {
+        private SkipListNode<K, V> current;
+        private final K toKey; // exclusive upper bound, or null for none
+
+        EntryIterator(SkipListNode<K, V> start, K toKey) {
+            current = start;
+            this.toKey = toKey;
+        }
+
+        public boolean hasNext() {
+            return current != null && (toKey == null || compare(current.getKey(), toKey) < 0);
+        }
+
+        public Entry<K, V> next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException("No more entries");
+            }
+            SkipListNode<K, V> answer = current;
+            current = current.next[0];
+            return answer;
+        }
+    }
+
+    // An iterable over the entries from fromKey (inclusive) up to toKey
+    // (exclusive); a null bound means the range is open on that side
+    private class EntryIterable implements Iterable<Entry<K, V>> {
+        private final K fromKey;
+        private final K toKey;
+
+        EntryIterable(K fromKey, K toKey) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        public Iterator<Entry<K, V>> iterator() {
+            SkipListNode<K, V> start = (fromKey == null) ? head.next[0] : findLower(fromKey).next[0];
+            return new EntryIterator(start, toKey);
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for(Entry<K, V> entry : this) {
+                sb.append(sb.length() > 1 ? ", " : "").append(entry);
+            }
+            return sb.append("]").toString();
+        }
+    }
+
+    // Entries are read from level 0 as the iteration proceeds, in key order
     @Override
     public Iterable<Entry<K, V>> entrySet() {
-        
-    	ArrayList<Entry<K, V>> entrySet = new ArrayList<Entry<K, V>>();
-    	
-    	
-    	SkipListNode<K, V> current = head;
-    	
-    	for(int i=0;i < size(); i++) {
-    		
-    		SkipListNode<K, V> next = current.nextNodes.get(0);
-    		
-    		Entry<K, V> entry = new MapEntry<K, V>(next.getKey(), next.getValue());
-    		entrySet.add(entry);
-
-    		current = next;
-    	}
-    	 
-        return entrySet;
+        return new EntryIterable(null, null);
+    }
+
+    @Override
+    public Entry<K, V> firstEntry() {
+        return head.next[0];
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+        SkipListNode<K, V> current = head;
+        for(int level = maxLevel; level >= 0; level--) {
+            while(current.next[level] != null) {
+                current = current.next[level];
+            }
+        }
+        return (current == head) ? null : current;
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return findLower(key).next[0];
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        SkipListNode<K, V> node = find(key);
+        return (node == head) ? null : node;
+    }
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        SkipListNode<K, V> node = findLower(key);
+        return (node == head) ? null : node;
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return find(key).next[0];
+    }
+
+    // Returns the entries with fromKey <= key < toKey. The first is found in
+    // O(log n) time and the rest by walking level 0, so nothing is copied.
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return new EntryIterable(fromKey, toKey);
     }
-    
+
     // Returns the skiplist node with greatest value <= e
     private SkipListNode<K, V> find(K k) {
         return find(k, head, maxLevel);
@@ -164,23 +266,47 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
         do{
         	current = findNext(k, current, level);
         }while(level-->0);
-        
+
+        return current;
+    }
+
+    // Returns the skiplist node with greatest value < e (the head if none)
+    private SkipListNode<K, V> findLower(K k) {
+        return findLower(k, null);
+    }
+
+    // Returns the skiplist node with greatest value < e (the head if none). If
+    // update is given, update[i] is set to the last node visited on level i.
+    protected SkipListNode<K, V> findLower(K k, SkipListNode<K, V>[] update) {
+        SkipListNode<K, V> current = head;
+        for(int level = maxLevel; level >= 0; level--) {
+            current = findPrevious(k, current, level);
+            if(update != null) {
+                update[level] = current;
+            }
+        }
         return current;
     }
 
-    // Returns the node at a given level with highest value less than e
+    // Returns the node at a given level with highest value less than or equal to e
     private SkipListNode<K, V> findNext(K k, SkipListNode<K, V> current, int level) {
-        SkipListNode<K, V> next = current.nextNodes.get(level);
-        while(next!=null) {
-        	if(compare(k, (K) next.getKey())>=0) {
-        		current = next;
-        		next= current.nextNodes.get(level);
-        	}
-        	else {
-        		break;
-        	}
-        }
-        
+        SkipListNode<K, V> next = current.next[level];
+        while(next!=null && compare(k, next.getKey())>=0) {
+        	current = next;
+        	next = current.next[level];
+        }
+
+        return current;
+    }
+
+    // Returns the node at a given level with highest value strictly less than e
+    private SkipListNode<K, V> findPrevious(K k, SkipListNode<K, V> current, int level) {
+        SkipListNode<K, V> next = current.next[level];
+        while(next!=null && compare(k, next.getKey())>0) {
+        	current = next;
+        	next = current.next[level];
+        }
+
         return current;
     }
 
@@ -190,19 +316,20 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
 
     @Override
     public V get(K key) {
-        // Use find to get the value
-    	return (find(key).getValue());
+        // Use find to get the node with the greatest key <= key
+    	SkipListNode<K, V> node = find(key);
+    	return (node != head && compare(key, node.getKey())==0) ? node.getValue() : null;
     }
 
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("(");
         int level = 0;
-        SkipListNode<K, V> current = head.nextNodes.get(level);
+        SkipListNode<K, V> current = head.next[level];
 
         while(current != null) {
             sb.append(current.toString()).append(", ");
-            current = current.nextNodes.get(level);
+            current = current.next[level];
         }
         sb.append(")");
         return sb.toString();
@@ -222,24 +349,24 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
         System.out.println(testList);
 
         System.out.println("Get 1 "+ testList.get(1));
-        
+
         for(int i=0;i<20;i++) {
         	testList.put(i, "test");
         }
-        
+
         System.out.println(testList);
-        
+
         System.out.println(testList.entrySet());
         testList.remove(0);
-        
+
         System.out.println(testList);
-        
+
         testList.remove(0);
-        
+
         System.out.println(testList);
-        
+
         testList.remove(5);
-        
+
         System.out.println(testList);
 //        for(Integer k : testList.keySet()) {
 //            System.out.println(k);
@@ -251,4 +378,4 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
     }
 
 
-}
\ No newline at end of file
+}
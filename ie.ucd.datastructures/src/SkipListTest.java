@@ -92,4 +92,90 @@ class SkipListTest {
 		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
 	}
 
+	@Test
+	void testPutReplaces() {
+		SkipList<String, Integer> map = new SkipList<String, Integer>();
+
+		assertEquals(null, map.put("one", 1));
+		assertEquals(1, map.put("one", 11));
+		assertEquals(11, map.get("one"));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void testGetMissing() {
+		SkipList<Integer, String> map = new SkipList<Integer, String>();
+
+		assertEquals(null, map.get(1));
+		map.put(1, "1");
+		map.put(3, "3");
+		assertEquals(null, map.get(2));
+		assertEquals(null, map.get(0));
+		assertEquals(null, map.remove(2));
+	}
+
+	@Test
+	void testRandomOperations() {
+		SkipList<Integer, Integer> map = new SkipList<Integer, Integer>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		java.util.Random rnd = new java.util.Random(5);
+
+		for(int i = 0; i < 20000; ++i) {
+			int k = rnd.nextInt(1000);
+			if(rnd.nextBoolean()) {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			} else {
+				assertEquals(expected.remove(k), map.remove(k));
+			}
+			assertEquals(expected.get(i % 1000), map.get(i % 1000));
+		}
+		assertEquals(expected.size(), map.size());
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer k : map.keySet()) buf.add(k);
+		assertEquals(expected.keySet().toString(), buf.toString());
+	}
+
+	@Test
+	void testNavigation() {
+		SkipList<Integer, String> map = new SkipList<Integer, String>();
+		assertEquals(null, map.firstEntry());
+		assertEquals(null, map.lastEntry());
+
+		for(int i = 0; i < 100; i += 10) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(0, map.firstEntry().getKey());
+		assertEquals(90, map.lastEntry().getKey());
+		assertEquals(20, map.ceilingEntry(20).getKey());
+		assertEquals(30, map.ceilingEntry(21).getKey());
+		assertEquals(null, map.ceilingEntry(91));
+		assertEquals(20, map.floorEntry(20).getKey());
+		assertEquals(20, map.floorEntry(29).getKey());
+		assertEquals(null, map.floorEntry(-1));
+		assertEquals(10, map.lowerEntry(20).getKey());
+		assertEquals(null, map.lowerEntry(0));
+		assertEquals(30, map.higherEntry(20).getKey());
+		assertEquals(null, map.higherEntry(90));
+	}
+
+	@Test
+	void testSubMap() {
+		SkipList<Integer, String> map = new SkipList<Integer, String>();
+
+		for(int i = 0; i < 100; i += 10) {
+			map.put(i, Integer.toString(i));
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Entry<Integer, String> entry : map.subMap(15, 60)) buf.add(entry.getKey());
+		assertEquals("[20, 30, 40, 50]", buf.toString());
+
+		buf.clear();
+		for(Entry<Integer, String> entry : map.subMap(20, 21)) buf.add(entry.getKey());
+		assertEquals("[20]", buf.toString());
+
+		buf.clear();
+		for(Entry<Integer, String> entry : map.subMap(60, 60)) buf.add(entry.getKey());
+		assertEquals("[]", buf.toString());
+	}
+
 }
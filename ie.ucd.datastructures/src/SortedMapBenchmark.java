@@ -0,0 +1,110 @@
+import java.util.Random;
+
+/**
+ * Times put, get and short range scans on the tree-based sorted maps and on
+ * BPlusTreeMap at several orders, and prints the mean time of each operation.
+ * <p>
+ * The keys are distinct random integers, inserted and then looked up in
+ * random order, so lookups miss the processor caches about as often as they
+ * would on a large index. The number of keys may be given as the first
+ * argument; it defaults to one million.
+ */
+public class SortedMapBenchmark {
+
+    /** Number of entries read by each range scan. */
+    private static final int SCAN_LENGTH = 100;
+
+    /**
+     * Returns the given number of distinct random keys, in random order.
+     *
+     * @param n    the number of keys
+     * @param seed the seed of the random generator
+     * @return the keys
+     */
+    public static Integer[] randomKeys(int n, long seed) {
+
+        Random random = new Random(seed);
+        ChainHashMap<Integer, Boolean> seen = new ChainHashMap<>(2 * n + 1);
+        Integer[] keys = new Integer[n];
+
+        for (int i = 0; i < n;) {
+
+            int key = random.nextInt();
+
+            if (seen.put(key, Boolean.TRUE) == null) {
+
+                keys[i++] = key;
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Fills the map with the keys and times the operations on it.
+     *
+     * @param name the name to print for the map
+     * @param map  the map, initially empty
+     * @param keys the keys to insert and look up
+     */
+    public static void run(String name, SortedMap<Integer, Integer> map, Integer[] keys) {
+
+        long start = System.nanoTime();
+
+        for (Integer key : keys) {
+
+            map.put(key, key);
+        }
+
+        double put = (double) (System.nanoTime() - start) / keys.length;
+        long sum = 0;
+        start = System.nanoTime();
+
+        for (int i = keys.length - 1; i >= 0; i--) { // a different order from the inserts
+
+            sum += map.get(keys[i]);
+        }
+
+        double get = (double) (System.nanoTime() - start) / keys.length;
+        int scans = Math.max(1, keys.length / SCAN_LENGTH);
+        long range = (1L << 32) / keys.length * SCAN_LENGTH; // covers about SCAN_LENGTH keys
+        start = System.nanoTime();
+
+        for (int i = 0; i < scans; i++) {
+
+            int from = keys[i];
+            int to = (int) Math.min(Integer.MAX_VALUE, from + range);
+
+            for (Entry<Integer, Integer> entry : map.subMap(from, to)) {
+
+                sum += entry.getValue();
+            }
+        }
+
+        double scan = (double) (System.nanoTime() - start) / scans;
+        System.out.println(String.format("%-22s %10.0f %10.0f %12.0f   (%d)", name, put, get, scan, sum & 1));
+    }
+
+    public static void main(String[] args) {
+
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        Integer[] keys = randomKeys(n, 42);
+        System.out.println("entries: " + n);
+        System.out.println(String.format("%-22s %10s %10s %12s", "map", "put ns", "get ns", "scan ns"));
+
+        for (int round = 0; round < 2; round++) { // the first round warms up the compiler
+
+            run("TreeMap", new TreeMap<>(), keys);
+            run("AVLTreeMap", new AVLTreeMap<>(), keys);
+            run("RBTreeMap", new RBTreeMap<>(), keys);
+
+            for (int order : new int[] { 32, 64, 128, 256 }) {
+
+                run("BPlusTreeMap(" + order + ")", new BPlusTreeMap<>(order), keys);
+            }
+
+            System.out.println();
+        }
+    }
+
+}
@@ -48,14 +48,9 @@ public class SplayTreeMap<K, V> extends TreeMap<K, V> {
      * 
      * @param p
      */
-    // @Override
+    @Override
     protected void rebalanceAccess(Position<Entry<K, V>> p) {
-        if (isExternal(p)) {
-            p = parent(p);
-        }
-        if (p != null) {
-            splay(p);
-        }
+        splay(p);
     }
 
     /**
@@ -63,7 +58,7 @@ public class SplayTreeMap<K, V> extends TreeMap<K, V> {
      * 
      * @param p
      */
-    // @Override
+    @Override
     protected void rebalanceInsert(Position<Entry<K, V>> p) {
         splay(p);
     }
@@ -71,12 +66,13 @@ public class SplayTreeMap<K, V> extends TreeMap<K, V> {
     /**
      * Overrides the TreeMap rebalancing hook that is called after a deletion.
      * 
+     * @param parent
      * @param p
      */
-    // @Override
-    protected void rebalanceDelete(Position<Entry<K, V>> p) {
-        if (!isRoot(p)) {
-            splay(parent(p));
+    @Override
+    protected void rebalanceDelete(Position<Entry<K, V>> parent, Position<Entry<K, V>> p) {
+        if (parent != null) {
+            splay(parent);
         }
     }
 
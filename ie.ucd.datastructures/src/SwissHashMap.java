@@ -0,0 +1,297 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Map implementation using an open-addressing hash table with a separate array
+ * of one-byte control tags, in the style of a "Swiss table".
+ * <p>
+ * Slots are arranged in groups of eight, and the eight control bytes of a group
+ * are packed into a single long. A control byte is either EMPTY, DELETED or,
+ * for an occupied slot, a 7-bit tag taken from the key's hash code. A lookup
+ * compares the tag against all eight bytes of a group at once with word-level
+ * (SWAR) arithmetic and only calls equals() on slots whose tag matches; it
+ * stops at the first group that still has an EMPTY byte. Most misses are
+ * therefore settled without touching a single key, and the table can be run
+ * at a load factor of 7/8.
+ * <p>
+ * The home group of a key is derived from the MAD hash of AbstractHashMap and
+ * groups are probed linearly.
+ */
+public class SwissHashMap<K, V> extends AbstractHashMap<K, V> {
+
+    // control byte values; occupied slots hold a tag in 0..127
+    private static final long EMPTY = 0x80L;
+    private static final long DELETED = 0xFEL;
+
+    private static final long LSBS = 0x0101010101010101L; // low bit of each byte
+    private static final long MSBS = 0x8080808080808080L; // high bit of each byte
+
+    private long[] ctrl; // control bytes, one long per group of eight slots
+    private Object[] keys; // initialized within createTable
+    private Object[] values; // initialized within createTable
+    private int groups; // number of groups
+    private int deleted; // number of DELETED control bytes
+
+    /**
+     * Creates a hash table with capacity 17 and prime factor 109345121.
+     */
+    public SwissHashMap() {
+
+        super();
+    }
+
+    /**
+     * Creates a hash table with given capacity and prime factor 109345121.
+     */
+    public SwissHashMap(int cap) {
+
+        super(cap);
+    }
+
+    /**
+     * Creates a hash table with the given capacity and prime factor.
+     */
+    public SwissHashMap(int cap, int p) {
+
+        super(cap, p);
+    }
+
+    /**
+     * Creates an empty table with enough groups of eight to cover the current
+     * capacity.
+     */
+    @Override
+    protected void createTable() {
+
+        groups = (capacity + 7) >>> 3;
+        ctrl = new long[groups];
+        Arrays.fill(ctrl, EMPTY * LSBS); // every byte EMPTY
+        keys = new Object[groups << 3];
+        values = new Object[groups << 3];
+        deleted = 0;
+    }
+
+    /**
+     * Returns the load factor above which the table is doubled in size.
+     *
+     * @return the maximum ratio of entries to capacity before resizing
+     */
+    @Override
+    protected double maxLoad() {
+
+        return 0.875;
+    }
+
+    /**
+     * Returns the number of DELETED control bytes. They count towards the load,
+     * so a table short of EMPTY bytes because of removals is rebuilt at its
+     * current capacity rather than grown.
+     *
+     * @return the number of DELETED slots in the table
+     */
+    @Override
+    protected int tombstones() {
+
+        return deleted;
+    }
+
+    // SWAR utilities over the eight control bytes of a group
+
+    /** Returns a word with the high bit set in each byte equal to tag. */
+    private static long matchTag(long word, int tag) {
+
+        long x = word ^ (LSBS * tag); // matching bytes become zero
+        return (x - LSBS) & ~x & MSBS; // may flag a byte above a true match; callers recheck
+    }
+
+    /** Returns a word with the high bit set in each EMPTY byte. */
+    private static long matchEmpty(long word) {
+
+        return word & ~(word << 6) & MSBS; // EMPTY is the only marker with bit 1 clear
+    }
+
+    /** Returns a word with the high bit set in each EMPTY or DELETED byte. */
+    private static long matchAvailable(long word) {
+
+        return word & MSBS;
+    }
+
+    /** Returns the index of the slot flagged by the lowest set bit of mask. */
+    private static int slotOf(int group, long mask) {
+
+        return (group << 3) + (Long.numberOfTrailingZeros(mask) >>> 3);
+    }
+
+    /** Returns the 7-bit tag stored in the control byte of key k. */
+    private static int tag(Object k) {
+
+        return (k.hashCode() * 0x9E3779B9) >>> 25;
+    }
+
+    /** Overwrites the control byte of slot j. */
+    private void setCtrl(int j, long value) {
+
+        int shift = (j & 7) << 3;
+        ctrl[j >>> 3] = (ctrl[j >>> 3] & ~(0xFFL << shift)) | (value << shift);
+    }
+
+    /**
+     * Returns the slot holding key k, whose home group is given by h, or -1 if the
+     * key is not present.
+     */
+    private int findSlot(int h, K k) {
+
+        int g = h >>> 3;
+        int tag = tag(k);
+
+        for (int probe = 0; probe < groups; probe++) {
+
+            long word = ctrl[g];
+
+            for (long m = matchTag(word, tag); m != 0; m &= m - 1) {
+
+                int j = slotOf(g, m);
+
+                if (keys[j] != null && keys[j].equals(k)) {
+
+                    return j;
+                }
+            }
+
+            if (matchEmpty(word) != 0) {
+
+                return -1; // an insertion would have stopped here
+            }
+
+            g = (g + 1) % groups;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns value associated with key k in bucket with hash value h. If no such
+     * entry exists, returns null.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return associate value (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketGet(int h, K k) {
+
+        int j = findSlot(h, k);
+        return (j < 0) ? null : (V) values[j];
+    }
+
+    /**
+     * Associates key k with value v in bucket with hash value h, returning the
+     * previously associated value, if any.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @param v the value to be associated
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketPut(int h, K k, V v) {
+
+        int j = findSlot(h, k);
+
+        if (j >= 0) { // this key has an existing entry
+
+            V previousValue = (V) values[j];
+            values[j] = v;
+            return previousValue;
+        }
+
+        int g = h >>> 3;
+        long m = matchAvailable(ctrl[g]);
+
+        while (m == 0) {
+
+            g = (g + 1) % groups;
+            m = matchAvailable(ctrl[g]);
+        }
+
+        j = slotOf(g, m);
+
+        if (((ctrl[g] >>> ((j & 7) << 3)) & 0xFFL) == DELETED) {
+
+            deleted--; // reusing a DELETED slot
+        }
+
+        setCtrl(j, tag(k));
+        keys[j] = k;
+        values[j] = v;
+        n++;
+        return null;
+    }
+
+    /**
+     * Removes entry having key k from bucket with hash value h, returning the
+     * previously associated value, if found.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    protected V bucketRemove(int h, K k) {
+
+        int j = findSlot(h, k);
+
+        if (j < 0) {
+
+            return null; // nothing to remove
+        }
+
+        V previousValue = (V) values[j];
+
+        // a group with an EMPTY byte never diverted a probe, so the slot can be EMPTY again
+        if (matchEmpty(ctrl[j >>> 3]) != 0) {
+
+            setCtrl(j, EMPTY);
+        } else {
+
+            setCtrl(j, DELETED);
+            deleted++;
+        }
+
+        keys[j] = null;
+        values[j] = null;
+        n--;
+        return previousValue;
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    @SuppressWarnings({ "unchecked" })
+    public Iterable<Entry<K, V>> entrySet() {
+
+        ArrayList<Entry<K, V>> temporary = new ArrayList<>(n);
+
+        for (int j = 0; j < keys.length; j++) {
+
+            if (keys[j] != null) {
+
+                temporary.add(new MapEntry<>((K) keys[j], (V) values[j]));
+            }
+        }
+
+        return temporary;
+    }
+
+    public String toString() {
+
+        return entrySet().toString();
+    }
+
+}
@@ -0,0 +1,173 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SwissHashMapTest {
+
+	@Test
+	void testSize() {
+		SwissHashMap<Integer, String> map = new SwissHashMap<Integer, String>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(n, map.size());
+	}
+
+	@Test
+	void testGet() {
+		SwissHashMap<String, Integer> map = new SwissHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.get("5"));
+		assertEquals(2, map.get("2"));
+	}
+
+	@Test
+	void testRemove() {
+		SwissHashMap<String, Integer> map = new SwissHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(5, map.remove("5"));
+		assertEquals(n-1, map.size());
+	}
+
+	@Test
+	void testPut() {
+		SwissHashMap<String, Integer> map = new SwissHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(n, map.size());		
+	}
+
+	@Test
+	void testIsEmpty() {
+		SwissHashMap<String, Integer> map = new SwissHashMap<String, Integer>();
+
+		assertEquals(true, map.isEmpty());
+		
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		assertEquals(false, map.isEmpty());	
+	}
+
+	@Test
+	void testKeySet() {
+		SwissHashMap<String, Integer> map = new SwissHashMap<String, Integer>();
+
+		map.put("one", 1);
+		map.put("two", 2);
+		map.put("three", 3);
+		ArrayList<String> buf = new ArrayList<>();
+		for(String s : map.keySet()) buf.add(s);
+		buf.sort(new DefaultComparator<String>());
+		assertEquals("[one, three, two]", buf.toString());
+	}
+
+	@Test
+	void testValues() {
+		SwissHashMap<String, Integer> map = new SwissHashMap<String, Integer>();
+
+		int n = 10;
+		for(int i = 0; i < n; ++i) {
+			map.put(Integer.toString(i), i);
+		}
+		ArrayList<Integer> buf = new ArrayList<>();
+		for(Integer s : map.values()) buf.add(s);
+		buf.sort(new DefaultComparator<Integer>());
+		assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", buf.toString());
+	}
+
+	@Test
+	void testRemoveThenGet() {
+		SwissHashMap<Integer, String> map = new SwissHashMap<Integer, String>(7);
+
+		int n = 50;
+		for(int i = 0; i < n; ++i) {
+			map.put(i, Integer.toString(i));
+		}
+		for(int i = 0; i < n; i += 2) {
+			assertEquals(Integer.toString(i), map.remove(i));
+		}
+		for(int i = 1; i < n; i += 2) {
+			assertEquals(Integer.toString(i), map.get(i));
+		}
+		assertEquals(null, map.get(0));
+		assertEquals(n/2, map.size());
+	}
+
+	@Test
+	void testAgainstHashMap() {
+		SwissHashMap<Integer, Integer> map = new SwissHashMap<Integer, Integer>(11);
+		HashMap<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		Random rnd = new Random(20);
+
+		for(int i = 0; i < 5000; ++i) {
+			int k = rnd.nextInt(500);
+			if(rnd.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for(int k = 0; k < 500; ++k) {
+			assertEquals(expected.get(k), map.get(k));
+		}
+	}
+
+	@Test
+	void testChurn() {
+		SwissHashMap<String, Integer> map = new SwissHashMap<String, Integer>(64);
+
+		for(int round = 0; round < 50; ++round) {
+			for(int i = 0; i < 40; ++i) {
+				map.put("k" + (round * 40 + i), i);
+			}
+			for(int i = 0; i < 40; ++i) {
+				assertEquals(i, map.remove("k" + (round * 40 + i)));
+			}
+		}
+		assertEquals(0, map.size());
+		assertEquals(null, map.get("k0"));
+	}
+
+	@Test
+	void testChurnNearMaxLoad() {
+		SwissHashMap<Integer, Integer> map = new SwissHashMap<Integer, Integer>(1023);
+
+		map.enableStats();
+		for(int i = 0; i < 890; ++i) {
+			map.put(i, i);
+		}
+		assertEquals(0, map.getStats().getResizeCount());
+		// at most a doubling and then an occasional rebuild, not one per insertion
+		for(int i = 890; i < 20000; ++i) {
+			assertEquals(i - 890, map.remove(i - 890));
+			map.put(i, i);
+		}
+		assertEquals(890, map.size());
+		assertEquals(19999, map.get(19999));
+		assertEquals(null, map.get(0));
+		assertTrue(map.getStats().getResizeCount() < 40);
+		assertEquals(2045, map.getStats().getCapacity());
+	}
+
+}
@@ -2,6 +2,10 @@ import java.util.*;
 
 /**
  * An implementation of a sorted map using a binary search tree.
+ * 
+ * Every node of the tree holds an entry. The external leaves of the textbook
+ * formulation are not stored: a missing child is simply null, so a map with n
+ * entries has n nodes rather than 2n + 1.
  */
 
 public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
@@ -10,7 +14,8 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	/**
 	 * A specialized version of the LinkedBinaryTree class with additional mutators
 	 * to support binary search tree operations, and a specialized node class that
-	 * includes an auxiliary instance variable for balancing data.
+	 * includes an auxiliary instance variable for balancing data. Missing children
+	 * are null.
 	 */
 	protected static class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
 		// -------------- nested BSTNode class --------------
@@ -47,10 +52,12 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 			return new BSTNode<>(e, parent, left, right);
 		}
 
-		/** Relinks a parent node with its oriented child node. */
+		/** Relinks a parent node with its oriented child node, which may be null. */
 		private void relink(Node<Entry<K, V>> parent, Node<Entry<K, V>> child, boolean makeLeftChild) {
 
-			child.setParent(parent);
+			if (child != null) {
+				child.setParent(parent);
+			}
 			if (makeLeftChild) {
 				parent.setLeft(child);
 			} else {
@@ -83,7 +90,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 				root = x;
 				x.setParent(null);
 			} else {
-				relink(x, y, y == z.getLeft());
+				relink(z, x, y == z.getLeft()); // x becomes a direct child of z
 			}
 
 			if (x == y.getLeft()) {
@@ -142,16 +149,160 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 		}
 	} // ----------- end of nested BalanceableBinaryTree class -----------
 
+	// ---------------- nested OrderStatisticTree class ----------------
+	/**
+	 * A BalanceableBinaryTree whose nodes also record the size of their subtree,
+	 * kept up to date by every insertion, removal and rotation. This lets the
+	 * position of a node in the inorder traversal, and the node at a given
+	 * position, be found along a single root-to-node path.
+	 */
+	protected static class OrderStatisticTree<K, V> extends BalanceableBinaryTree<K, V> {
+		// -------------- nested SizedNode class --------------
+		protected static class SizedNode<E> extends BSTNode<E> {
+			int size = 1; // number of nodes in the subtree rooted here
+
+			SizedNode(E e, Node<E> parent, Node<E> leftChild, Node<E> rightChild) {
+				super(e, parent, leftChild, rightChild);
+			}
+		} // --------- end of nested SizedNode class ---------
+
+		@Override
+		protected Node<Entry<K, V>> createNode(Entry<K, V> e, Node<Entry<K, V>> parent, Node<Entry<K, V>> left,
+				Node<Entry<K, V>> right) {
+			return new SizedNode<>(e, parent, left, right);
+		}
+
+		/** Returns the number of nodes in the subtree rooted at p (0 if p is null). */
+		public int size(Position<Entry<K, V>> p) {
+			return (p == null) ? 0 : ((SizedNode<Entry<K, V>>) p).size;
+		}
+
+		/** Recomputes the subtree size of p from those of its children. */
+		private void recomputeSize(Position<Entry<K, V>> p) {
+			((SizedNode<Entry<K, V>>) p).size = 1 + size(left(p)) + size(right(p));
+		}
+
+		/** Adds delta to the subtree sizes of p and all its ancestors. */
+		private void adjustSizes(Node<Entry<K, V>> p, int delta) {
+			for (; p != null; p = p.getParent()) {
+				((SizedNode<Entry<K, V>>) p).size += delta;
+			}
+		}
+
+		@Override
+		public Position<Entry<K, V>> addLeft(Position<Entry<K, V>> p, Entry<K, V> e) throws IllegalArgumentException {
+			Position<Entry<K, V>> child = super.addLeft(p, e);
+			adjustSizes(validate(p), 1);
+			return child;
+		}
+
+		@Override
+		public Position<Entry<K, V>> addRight(Position<Entry<K, V>> p, Entry<K, V> e)
+				throws IllegalArgumentException {
+			Position<Entry<K, V>> child = super.addRight(p, e);
+			adjustSizes(validate(p), 1);
+			return child;
+		}
+
+		@Override
+		public Entry<K, V> remove(Position<Entry<K, V>> p) throws IllegalArgumentException {
+			Node<Entry<K, V>> parent = validate(p).getParent();
+			Entry<K, V> element = super.remove(p);
+			adjustSizes(parent, -1);
+			return element;
+		}
+
+		/**
+		 * Rotates Position p above its parent as BalanceableBinaryTree does. Only the
+		 * two nodes involved change subtrees: the old parent, now a child of p, is
+		 * recomputed first and then p.
+		 */
+		@Override
+		public void rotate(Position<Entry<K, V>> p) {
+			Position<Entry<K, V>> parent = parent(p);
+			super.rotate(p);
+			recomputeSize(parent);
+			recomputeSize(p);
+		}
+
+		/**
+		 * Returns the number of nodes preceding p in the inorder traversal: those of
+		 * its left subtree, plus, for each ancestor reached from its right child,
+		 * that ancestor and its left subtree.
+		 */
+		public int rank(Position<Entry<K, V>> p) {
+			Node<Entry<K, V>> node = validate(p);
+			int rank = size(node.getLeft());
+
+			for (Node<Entry<K, V>> parent = node.getParent(); parent != null; parent = node.getParent()) {
+				if (node == parent.getRight()) {
+					rank += size(parent.getLeft()) + 1;
+				}
+				node = parent;
+			}
+
+			return rank;
+		}
+
+		/**
+		 * Returns the node at index i of the inorder traversal, where 0 <= i < size().
+		 */
+		public Position<Entry<K, V>> select(int i) {
+			Node<Entry<K, V>> node = root;
+
+			while (true) {
+				int leftSize = size(node.getLeft());
+
+				if (i < leftSize) {
+					node = node.getLeft();
+				} else if (i == leftSize) {
+					return node;
+				} else {
+					i -= leftSize + 1;
+					node = node.getRight();
+				}
+			}
+		}
+
+		/**
+		 * Returns the number of entries before the given ceiling node, the least node
+		 * whose key is at least some key k, i.e. the number of keys less than k. A
+		 * null ceiling means every key is less than k.
+		 */
+		public int rankOfCeiling(Position<Entry<K, V>> ceiling) {
+			return (ceiling == null) ? size() : rank(ceiling);
+		}
+
+		/**
+		 * Returns the entry at index i of the inorder traversal.
+		 *
+		 * @throws IndexOutOfBoundsException if i is not in [0, size())
+		 */
+		public Entry<K, V> entryAt(int i) throws IndexOutOfBoundsException {
+			if (i < 0 || i >= size()) {
+				throw new IndexOutOfBoundsException("Index " + i + " is not in [0, " + size() + ")");
+			}
+			return select(i).getElement();
+		}
+	} // ----------- end of nested OrderStatisticTree class -----------
+
 	// We reuse the LinkedBinaryTree class. A limitation here is that we only use
 	// the key.
 	// protected LinkedBinaryTree<Entry<K, V>> tree = new LinkedBinaryTree<Entry<K,
 	// V>>();
-	protected BalanceableBinaryTree<K, V> tree = new BalanceableBinaryTree<>();
+	protected BalanceableBinaryTree<K, V> tree = createTree();
+
+	/**
+	 * Factory function for the underlying tree, which subclasses may override to
+	 * use a tree that keeps additional data.
+	 */
+	protected BalanceableBinaryTree<K, V> createTree() {
+		return new BalanceableBinaryTree<>();
+	}
 
 	/** Constructs an empty map using the natural ordering of keys. */
 	public TreeMap() {
 		super(); // the AbstractSortedMap constructor
-		tree.addRoot(null); // create a sentinel leaf as root
 	}
 
 	/**
@@ -161,7 +312,6 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 */
 	public TreeMap(Comparator<K> comp) {
 		super(comp); // the AbstractSortedMap constructor
-		tree.addRoot(null); // create a sentinel leaf as root
 	}
 
 	/**
@@ -171,7 +321,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 */
 	@Override
 	public int size() {
-		return (tree.size() - 1) / 2; // only internal nodes have entries
+		return tree.size(); // every node has an entry
 	}
 
 	protected Position<Entry<K, V>> restructure(Position<Entry<K, V>> x) {
@@ -188,35 +338,27 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	}
 
 	/**
-	 * Rebalances the tree after a child of specified position has been removed.
+	 * Rebalances the tree after a node with at most one child has been removed.
 	 * This version of the method does not do anything, but it can be overridden by
 	 * subclasses.
 	 * 
-	 * @param p the position of the sibling of the removed leaf
+	 * @param parent the position of the parent of the removed node (null if it was
+	 *               the root)
+	 * @param p      the position of the child that took its place (null if none)
 	 */
-	protected void rebalanceDelete(Position<Entry<K, V>> p) {
+	protected void rebalanceDelete(Position<Entry<K, V>> parent, Position<Entry<K, V>> p) {
 	}
 
 	/**
 	 * Rebalances the tree after an access of specified position. This version of
 	 * the method does not do anything, but it can be overridden by a subclasses.
 	 * 
-	 * @param p the Position which was recently accessed (possibly a leaf)
+	 * @param p the Position which was recently accessed (or the last one reached
+	 *          by an unsuccessful search)
 	 */
 	protected void rebalanceAccess(Position<Entry<K, V>> p) {
 	}
 
-	/** Utility used when inserting a new entry at a leaf of the tree */
-	private void expandExternal(Position<Entry<K, V>> p, Entry<K, V> entry) {
-
-		tree.set(p, entry);
-
-		tree.addLeft(p, null);
-		tree.addRight(p, null);
-
-		return;
-	}
-
 	// Some notational shorthands for brevity (yet not efficiency)
 	protected Position<Entry<K, V>> root() {
 		return tree.root();
@@ -244,8 +386,8 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	}
 
 	protected boolean isExternal(Position<Entry<K, V>> p) {
-		// Make sure that p has no right or left kids
-		return ((left(p) == null) && (right(p) == null));
+		// A missing child stands for an external leaf
+		return p == null;
 	}
 
 	protected boolean isInternal(Position<Entry<K, V>> p) {
@@ -265,29 +407,34 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	}
 
 	/**
-	 * Returns the position in p's subtree having the given key (or else the
-	 * terminal leaf).
+	 * Returns the position in p's subtree having the given key (or else the last
+	 * node reached, under which the key would be inserted).
+	 * 
+	 * The search descends the tree in a loop, reading the children straight from
+	 * the nodes rather than through the validating Position helpers, so a lookup
+	 * costs one comparison and one link per level and allocates nothing.
 	 * 
 	 * @param key a target key
 	 * @param p   a position of the tree serving as root of a subtree
-	 * @return Position holding key, or last node reached during search
+	 * @return Position holding key, or last node reached during search (null if
+	 *         the subtree is empty)
 	 */
 	private Position<Entry<K, V>> treeSearch(Position<Entry<K, V>> p, K key) {
-		if (isExternal(p)) {
-			return p;
-		}
+		LinkedBinaryTree.Node<Entry<K, V>> node = (LinkedBinaryTree.Node<Entry<K, V>>) p;
+		LinkedBinaryTree.Node<Entry<K, V>> last = null;
 
-		int compare = compare(key, p.getElement());
+		while (node != null) {
+			int compare = compare(key, node.getElement());
 
-		if (compare == 0) {
-			return p;
-		}
+			if (compare == 0) {
+				return node;
+			}
 
-		if (compare < 0) {
-			return treeSearch(left(p), key);
-		} else {
-			return treeSearch(right(p), key);
+			last = node;
+			node = (compare < 0) ? node.getLeft() : node.getRight();
 		}
+
+		return last;
 	}
 
 	/**
@@ -297,11 +444,13 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 * @return Position with minimal key in subtree
 	 */
 	protected Position<Entry<K, V>> treeMin(Position<Entry<K, V>> p) {
-		if (!(isExternal(left(p)))) {
-			p = treeMin(left(p));
+		LinkedBinaryTree.Node<Entry<K, V>> node = (LinkedBinaryTree.Node<Entry<K, V>>) p;
+
+		while (node.getLeft() != null) {
+			node = node.getLeft();
 		}
 
-		return p;
+		return node;
 	}
 
 	/**
@@ -311,11 +460,13 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 * @return Position with maximum key in subtree
 	 */
 	protected Position<Entry<K, V>> treeMax(Position<Entry<K, V>> p) {
-		if (!(isExternal(right(p)))) {
-			p = treeMax(right(p));
+		LinkedBinaryTree.Node<Entry<K, V>> node = (LinkedBinaryTree.Node<Entry<K, V>>) p;
+
+		while (node.getRight() != null) {
+			node = node.getRight();
 		}
 
-		return p;
+		return node;
 	}
 
 	/**
@@ -329,11 +480,14 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	public V get(K key) throws IllegalArgumentException {
 		Position<Entry<K, V>> p = treeSearch(root(), key);
 
-		if (isExternal(p)) {
+		if (p == null) {
 			return null;
-		} else {
-			return p.getElement().getValue();
 		}
+
+		Entry<K, V> entry = p.getElement();
+		rebalanceAccess(p);
+
+		return (compare(key, entry) == 0) ? entry.getValue() : null;
 	}
 
 	/**
@@ -349,19 +503,27 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	@Override
 	public V put(K key, V value) throws IllegalArgumentException {
 		Entry<K, V> entry = new MapEntry<K, V>(key, value);
-		Position<Entry<K, V>> entryPosition = treeSearch(root(), key);
+		Position<Entry<K, V>> p = treeSearch(root(), key);
 
-		if (isExternal(entryPosition)) {
-			expandExternal(entryPosition, entry);
+		if (p == null) {
+			rebalanceInsert(tree.addRoot(entry));
 
 			return null;
-		} else {
+		}
 
-			V oldValue = entryPosition.getElement().getValue();
-			set(entryPosition, entry);
+		int compare = compare(key, p.getElement());
+
+		if (compare == 0) {
+			V oldValue = p.getElement().getValue();
+			set(p, entry);
+			rebalanceAccess(p);
 
 			return oldValue;
 		}
+
+		rebalanceInsert((compare < 0) ? tree.addLeft(p, entry) : tree.addRight(p, entry));
+
+		return null;
 	}
 
 	/**
@@ -376,12 +538,18 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	public V remove(K key) throws IllegalArgumentException {
 		Position<Entry<K, V>> p = treeSearch(root(), key);
 
-		if (isExternal(p)) {
+		if (p == null) {
 
 			return null;
 
 		}
 
+		if (compare(key, p.getElement()) != 0) {
+			rebalanceAccess(p);
+
+			return null;
+		}
+
 		V value = p.getElement().getValue();
 
 		if (isInternal(left(p)) && isInternal(right(p))) {
@@ -392,11 +560,11 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 			p = rightmostNode;
 		}
 
-		Position<Entry<K, V>> leaf = isExternal(left(p)) ? left(p) : right(p);
-		Position<Entry<K, V>> sibling = sibling(leaf);
-		System.out.println(this.remove(leaf));
+		// p now has at most one child, which takes its place
+		Position<Entry<K, V>> parent = parent(p);
+		Position<Entry<K, V>> child = isInternal(left(p)) ? left(p) : right(p);
 		this.remove(p);
-		rebalanceDelete(sibling);
+		rebalanceDelete(parent, child);
 
 		return value;
 
@@ -436,44 +604,66 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	}
 
 	/**
-	 * Returns the entry with least key greater than or equal to given key (or null
-	 * if no such key exists).
-	 * 
-	 * @return entry with least key greater than or equal to given (or null if no
-	 *         such entry)
-	 * @throws IllegalArgumentException if the key is not compatible with the map
+	 * Returns the node with the least key greater than the given key, or equal to
+	 * it if inclusive is true (or null if no such node exists).
 	 */
-	@Override
-	public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
-		Iterator<Entry<K, V>> entryIterator = entrySet().iterator();
-		Entry<K, V> current = null;
-		Entry<K, V> leastFound = null;
+	protected LinkedBinaryTree.Node<Entry<K, V>> ceilingNode(K key, boolean inclusive) {
+		LinkedBinaryTree.Node<Entry<K, V>> node = (LinkedBinaryTree.Node<Entry<K, V>>) root();
+		LinkedBinaryTree.Node<Entry<K, V>> best = null;
 
-		while (entryIterator.hasNext()) {
+		while (node != null) {
+			int compare = compare(key, node.getElement());
 
-			current = entryIterator.next();
-
-			int compare = compare(current, key);
-
-			if (compare == 0) {
-				return current;
+			if (compare < 0 || (compare == 0 && inclusive)) {
+				best = node; // a candidate; look for a smaller one on the left
+				node = node.getLeft();
+			} else {
+				node = node.getRight();
 			}
+		}
 
-			if (compare > 0) {
+		return best;
+	}
 
-				if (leastFound == null) {
-					leastFound = current;
-				}
+	/**
+	 * Returns the node with the greatest key less than the given key, or equal to
+	 * it if inclusive is true (or null if no such node exists).
+	 */
+	protected LinkedBinaryTree.Node<Entry<K, V>> floorNode(K key, boolean inclusive) {
+		LinkedBinaryTree.Node<Entry<K, V>> node = (LinkedBinaryTree.Node<Entry<K, V>>) root();
+		LinkedBinaryTree.Node<Entry<K, V>> best = null;
 
-				compare = compare(current, leastFound);
+		while (node != null) {
+			int compare = compare(key, node.getElement());
 
-				if (compare < 0) {
-					leastFound = current;
-				}
+			if (compare > 0 || (compare == 0 && inclusive)) {
+				best = node; // a candidate; look for a greater one on the right
+				node = node.getRight();
+			} else {
+				node = node.getLeft();
 			}
 		}
 
-		return leastFound;
+		return best;
+	}
+
+	/** Returns the entry of a node, or null if there is no node. */
+	private static <E> E elementOf(LinkedBinaryTree.Node<E> node) {
+		return (node == null) ? null : node.getElement();
+	}
+
+	/**
+	 * Returns the entry with least key greater than or equal to given key (or null
+	 * if no such key exists).
+	 * 
+	 * @return entry with least key greater than or equal to given (or null if no
+	 *         such entry)
+	 * @throws IllegalArgumentException if the key is not compatible with the map
+	 */
+	@Override
+	public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+		checkKey(key);
+		return elementOf(ceilingNode(key, true));
 	}
 
 	/**
@@ -486,37 +676,8 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 */
 	@Override
 	public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
-
-		Iterator<Entry<K, V>> entryIterator = entrySet().iterator();
-		Entry<K, V> current = null;
-		Entry<K, V> greatestFound = null;
-
-		// Run through all the entries
-		while (entryIterator.hasNext()) {
-
-			current = entryIterator.next();
-
-			int compare = compare(current, key);
-
-			if (compare == 0) {
-				return current;
-			}
-
-			if (compare < 0) {
-
-				if (greatestFound == null) {
-					greatestFound = current;
-				}
-
-				compare = compare(current, greatestFound);
-
-				if (compare > 0) {
-					greatestFound = current;
-				}
-			}
-		}
-
-		return greatestFound;
+		checkKey(key);
+		return elementOf(floorNode(key, true));
 	}
 
 	/**
@@ -529,101 +690,194 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 */
 	@Override
 	public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+		checkKey(key);
+		return elementOf(floorNode(key, false));
+	}
+
+	/**
+	 * Returns the entry with least key strictly greater than given key (or null if
+	 * no such key exists).
+	 * 
+	 * @return entry with least key strictly greater than given (or null if no such
+	 *         entry)
+	 * @throws IllegalArgumentException if the key is not compatible with the map
+	 */
+	@Override
+	public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+		checkKey(key);
+		return elementOf(ceilingNode(key, false));
+	}
 
-		Iterator<Entry<K, V>> entryIterator = entrySet().iterator();
-		Entry<K, V> current = null;
-		Entry<K, V> greatestFound = null;
+	// Support for iteration
+	/**
+	 * Returns the in-order successor of a node, or null if it holds the greatest
+	 * key: the leftmost node of its right subtree if it has one, and otherwise
+	 * the nearest ancestor of which it lies in the left subtree.
+	 */
+	private static <E> LinkedBinaryTree.Node<E> successor(LinkedBinaryTree.Node<E> node) {
+		if (node.getRight() != null) {
+			node = node.getRight();
 
-		while (entryIterator.hasNext()) {
+			while (node.getLeft() != null) {
+				node = node.getLeft();
+			}
 
-			current = entryIterator.next();
+			return node;
+		}
 
-			int compare = compare(current, key);
-			/*
-			 * //If they are the same, return the current entry if(compare==0) { return
-			 * current; }
-			 */
+		LinkedBinaryTree.Node<E> parent = node.getParent();
 
-			if (compare < 0) {
+		while (parent != null && node == parent.getRight()) {
+			node = parent;
+			parent = node.getParent();
+		}
 
-				if (greatestFound == null) {
-					greatestFound = current;
-				}
+		return parent;
+	}
 
-				compare = compare(current, greatestFound);
+	/**
+	 * Returns the in-order predecessor of a node, or null if it holds the least
+	 * key; the mirror image of successor.
+	 */
+	private static <E> LinkedBinaryTree.Node<E> predecessor(LinkedBinaryTree.Node<E> node) {
+		if (node.getLeft() != null) {
+			node = node.getLeft();
 
-				if (compare > 0) {
-					greatestFound = current;
-				}
+			while (node.getRight() != null) {
+				node = node.getRight();
 			}
+
+			return node;
 		}
 
-		return greatestFound;
+		LinkedBinaryTree.Node<E> parent = node.getParent();
+
+		while (parent != null && node == parent.getLeft()) {
+			node = parent;
+			parent = node.getParent();
+		}
+
+		return parent;
 	}
 
+	// ---------------- nested EntryIterator class ----------------
 	/**
-	 * Returns the entry with least key strictly greater than given key (or null if
-	 * no such key exists).
-	 * 
-	 * @return entry with least key strictly greater than given (or null if no such
-	 *         entry)
-	 * @throws IllegalArgumentException if the key is not compatible with the map
+	 * Walks the entries in key order, or in reverse, by stepping from each node to
+	 * its successor (or predecessor) through the parent links, so no buffer is
+	 * built and stopping early costs nothing. Iteration ends at the first key
+	 * beyond the far bound of the range. The map should not be modified during
+	 * the iteration.
 	 */
-	@Override
-	public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+	private class EntryIterator implements Iterator<Entry<K, V>> {
+		private LinkedBinaryTree.Node<Entry<K, V>> next; // node of the next entry, or null
+		private final K endKey; // the far bound, or null for none
+		private final boolean endInclusive;
+		private final boolean descending;
+
+		EntryIterator(LinkedBinaryTree.Node<Entry<K, V>> start, K endKey, boolean endInclusive,
+				boolean descending) {
+			this.endKey = endKey;
+			this.endInclusive = endInclusive;
+			this.descending = descending;
+			next = withinBound(start);
+		}
 
-		Iterator<Entry<K, V>> entryIterator = entrySet().iterator();
+		/** Returns node if its key has not passed the far bound, else null. */
+		private LinkedBinaryTree.Node<Entry<K, V>> withinBound(LinkedBinaryTree.Node<Entry<K, V>> node) {
+			if (node == null || endKey == null) {
+				return node;
+			}
 
-		Entry<K, V> current = null;
-		Entry<K, V> leastFound = null;
+			int compare = compare(node.getElement(), endKey);
 
-		// Run through all the entries
-		while (entryIterator.hasNext()) {
+			if (descending) {
+				compare = -compare;
+			}
 
-			current = entryIterator.next();
+			return (compare < 0 || (compare == 0 && endInclusive)) ? node : null;
+		}
 
-			int compare = compare(current, key);
+		public boolean hasNext() {
+			return next != null;
+		}
 
-			if (compare > 0) {
+		public Entry<K, V> next() {
+			if (next == null) {
+				throw new NoSuchElementException("No more entries");
+			}
 
-				if (leastFound == null) {
-					leastFound = current;
-				}
+			Entry<K, V> answer = next.getElement();
+			next = withinBound(descending ? predecessor(next) : successor(next));
+			return answer;
+		}
+	} // ----------- end of nested EntryIterator class -----------
 
-				compare = compare(current, leastFound);
+	// ---------------- nested EntryIterable class ----------------
+	/**
+	 * A view of the entries with keys between fromKey and toKey, each bound
+	 * inclusive or exclusive; a null bound leaves the range open on that side.
+	 */
+	private class EntryIterable implements Iterable<Entry<K, V>> {
+		private final K fromKey, toKey;
+		private final boolean fromInclusive, toInclusive;
+		private final boolean descending;
+
+		EntryIterable(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive, boolean descending) {
+			this.fromKey = fromKey;
+			this.fromInclusive = fromInclusive;
+			this.toKey = toKey;
+			this.toInclusive = toInclusive;
+			this.descending = descending;
+		}
 
-				if (compare < 0) {
-					leastFound = current;
-				}
+		public Iterator<Entry<K, V>> iterator() {
+			// the first entry is found in O(log n) time when iteration starts
+			LinkedBinaryTree.Node<Entry<K, V>> start;
+
+			if (tree.isEmpty()) {
+				start = null;
+			} else if (descending) {
+				start = (LinkedBinaryTree.Node<Entry<K, V>>) ((toKey == null) ? treeMax(root())
+						: floorNode(toKey, toInclusive));
+			} else {
+				start = (LinkedBinaryTree.Node<Entry<K, V>>) ((fromKey == null) ? treeMin(root())
+						: ceilingNode(fromKey, fromInclusive));
 			}
+
+			return descending ? new EntryIterator(start, fromKey, fromInclusive, true)
+					: new EntryIterator(start, toKey, toInclusive, false);
 		}
 
-		return leastFound;
-	}
+		public String toString() {
+			StringBuilder sb = new StringBuilder("[");
+
+			for (Entry<K, V> entry : this) {
+				sb.append(sb.length() > 1 ? ", " : "").append(entry);
+			}
+
+			return sb.append("]").toString();
+		}
+	} // ----------- end of nested EntryIterable class -----------
 
-	// Support for iteration
 	/**
-	 * Returns an iterable collection of all key-value entries of the map.
+	 * Returns an iterable collection of all key-value entries of the map, in key
+	 * order. The entries are read from the tree as the iteration proceeds.
 	 *
 	 * @return iterable collection of the map's entries
 	 */
 	@Override
 	public Iterable<Entry<K, V>> entrySet() {
-		ArrayList<Entry<K, V>> buffer = new ArrayList<>(size());
-
-		Iterator<Position<Entry<K, V>>> positionsIterator = tree.inorder().iterator();
-
-		for (int i = 0; i < size(); i++) {
-			Entry<K, V> nextEntry = positionsIterator.next().getElement();
-
-			if (nextEntry != null) {
-				buffer.add(i, nextEntry);
-			} else {
-				i--;
-			}
-		}
+		return new EntryIterable(null, false, null, false, false);
+	}
 
-		return buffer;
+	/**
+	 * Returns an iterable collection of all key-value entries of the map, in
+	 * decreasing key order.
+	 *
+	 * @return iterable collection of the map's entries, greatest key first
+	 */
+	public Iterable<Entry<K, V>> descendingEntrySet() {
+		return new EntryIterable(null, false, null, false, true);
 	}
 
 	public String toString() {
@@ -641,34 +895,54 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 */
 	@Override
 	public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+		return subMap(fromKey, true, toKey, false);
+	}
 
-		Iterator<Entry<K, V>> entrySetIterator = this.entrySet().iterator();
-
-		ArrayList<Entry<K, V>> subMap = new ArrayList<Entry<K, V>>();
-
-		boolean from = false;
-
-		// Run through the map
-		while (entrySetIterator.hasNext()) {
-			Entry<K, V> element = entrySetIterator.next();
-
-			int compare = compare(fromKey, element);
-
-			if (compare == 0) {
-				from = true;
-			}
-
-			compare = compare(toKey, element);
-			if (compare == 0 || compare < 0) {
-				break;
-			}
-
-			if (from) {
-				subMap.add(element);
-			}
+	/**
+	 * Returns an iterable containing all entries with keys in the range from
+	 * <code>fromKey</code> to <code>toKey</code>, in increasing key order. The
+	 * range is a view: iteration descends to the first entry in O(log n) time and
+	 * walks successors from there, so a range of k entries costs O(log n + k).
+	 * 
+	 * @param fromKey       low end of the range
+	 * @param fromInclusive whether an entry with key <code>fromKey</code> is in
+	 *                      the range
+	 * @param toKey         high end of the range
+	 * @param toInclusive   whether an entry with key <code>toKey</code> is in the
+	 *                      range
+	 * @return iterable with keys in desired range
+	 * @throws IllegalArgumentException if <code>fromKey</code> or
+	 *                                  <code>toKey</code> is not compatible with
+	 *                                  the map
+	 */
+	public Iterable<Entry<K, V>> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive)
+			throws IllegalArgumentException {
+		checkKey(fromKey);
+		checkKey(toKey);
+		return new EntryIterable(fromKey, fromInclusive, toKey, toInclusive, false);
+	}
 
-		}
-		return subMap;
+	/**
+	 * Returns an iterable containing the same entries as
+	 * <code>subMap(fromKey, fromInclusive, toKey, toInclusive)</code>, in
+	 * decreasing key order, starting from the end nearest <code>toKey</code>.
+	 * 
+	 * @param fromKey       low end of the range
+	 * @param fromInclusive whether an entry with key <code>fromKey</code> is in
+	 *                      the range
+	 * @param toKey         high end of the range
+	 * @param toInclusive   whether an entry with key <code>toKey</code> is in the
+	 *                      range
+	 * @return iterable with keys in desired range, greatest key first
+	 * @throws IllegalArgumentException if <code>fromKey</code> or
+	 *                                  <code>toKey</code> is not compatible with
+	 *                                  the map
+	 */
+	public Iterable<Entry<K, V>> descendingSubMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive)
+			throws IllegalArgumentException {
+		checkKey(fromKey);
+		checkKey(toKey);
+		return new EntryIterable(fromKey, fromInclusive, toKey, toInclusive, true);
 	}
 
 	protected void rotate(Position<Entry<K, V>> p) {
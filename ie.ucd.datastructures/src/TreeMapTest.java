@@ -1,6 +1,12 @@
 import org.junit.jupiter.api.Test;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TreeMapTest {
 
@@ -175,4 +181,163 @@ class TreeMapTest {
 		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).toString());
 	}
 
+	@Test
+	void testDegenerateTree() {
+		// keys inserted in order form a single path, which the search walks
+		// iteratively rather than recursing once per level
+		TreeMap<Integer, String> map = new TreeMap<>();
+
+		for (int i = 0; i < 10000; i++) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("9999", map.get(9999));
+		assertEquals(null, map.get(10000));
+		assertEquals(0, map.firstEntry().getKey());
+		assertEquals(9999, map.lastEntry().getKey());
+		assertEquals("5000", map.remove(5000));
+		assertEquals(9999, map.size());
+	}
+
+	@Test
+	void testNodeCount() {
+		// one node per entry, with no sentinel leaves
+		TreeMap<Integer, String> map = new TreeMap<>();
+		assertEquals(0, map.tree.size());
+		assertEquals(null, map.root());
+
+		for (int i = 0; i < 100; i++) {
+			map.put((i * 37) % 100, Integer.toString(i));
+		}
+		assertEquals(100, map.tree.size());
+
+		for (int i = 0; i < 100; i++) {
+			map.remove(i);
+		}
+		assertEquals(0, map.tree.size());
+		assertEquals(null, map.firstEntry());
+	}
+
+	@Test
+	void testRandomOperations() {
+		checkRandomOperations(new TreeMap<>(), false);
+		checkRandomOperations(new AVLTreeMap<>(), true);
+		checkRandomOperations(new RBTreeMap<>(), true);
+		checkRandomOperations(new SplayTreeMap<>(), false);
+	}
+
+	private void checkRandomOperations(TreeMap<Integer, Integer> map, boolean balanced) {
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		java.util.Random rnd = new java.util.Random(5);
+
+		for (int i = 0; i < 20000; ++i) {
+			int k = rnd.nextInt(1000);
+			if (rnd.nextInt(3) > 0) {
+				assertEquals(expected.put(k, i), map.put(k, i));
+			} else {
+				assertEquals(expected.remove(k), map.remove(k));
+			}
+			assertEquals(expected.get(i % 1000), map.get(i % 1000));
+		}
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected.keySet().toString(), map.keySet().toString());
+
+		if (balanced) {
+			// AVL and red-black trees are within twice the optimal height
+			int height = map.tree.height(map.root());
+			assertTrue(height <= 2 * (32 - Integer.numberOfLeadingZeros(map.size())), "height " + height);
+		}
+	}
+
+	@Test
+	void testEntrySet() {
+		TreeMap<Integer, String> map = new TreeMap<>();
+		assertFalse(map.entrySet().iterator().hasNext());
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		Iterator<Entry<Integer, String>> it = map.entrySet().iterator();
+		assertEquals(1, it.next().getKey());
+		assertEquals(2, it.next().getKey());
+		assertEquals(4, it.next().getKey());
+
+		it = map.entrySet().iterator();
+		int count = 0;
+		while (it.hasNext()) {
+			it.next();
+			count++;
+		}
+		assertEquals(12, count);
+		assertThrows(NoSuchElementException.class, it::next);
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.entrySet().toString());
+	}
+
+	@Test
+	void testRangeViews() {
+		TreeMap<Integer, String> map = new TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+
+		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, true, 34, false).toString());
+		assertEquals("[15, 21, 23, 24]", map.subMap(12, false, 24, true).toString());
+		assertEquals("[24, 23, 21, 15]", map.descendingSubMap(12, false, 24, true).toString());
+		assertEquals("[26, 24, 23, 21, 15, 12]", map.descendingSubMap(12, true, 33, false).toString());
+		assertEquals("[]", map.subMap(13, true, 14, true).toString());
+		assertEquals("[]", map.subMap(24, false, 24, true).toString());
+		assertEquals("[35, 33, 26]", map.descendingSubMap(25, true, 100, true).toString());
+
+		StringBuilder keys = new StringBuilder();
+		for (Entry<Integer, String> entry : map.descendingEntrySet()) {
+			keys.append(entry.getKey()).append(' ');
+		}
+		assertEquals("35 33 26 24 23 21 15 12 5 4 2 1 ", keys.toString());
+	}
+
+	@Test
+	void testRandomRanges() {
+		TreeMap<Integer, Integer> map = new AVLTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		java.util.Random rnd = new java.util.Random(11);
+
+		for (int i = 0; i < 500; i++) {
+			int k = rnd.nextInt(1000);
+			map.put(k, i);
+			expected.put(k, i);
+		}
+
+		for (int i = 0; i < 1000; i++) {
+			int from = rnd.nextInt(1100) - 50;
+			int to = from + rnd.nextInt(200);
+			boolean fromInclusive = rnd.nextBoolean();
+			boolean toInclusive = rnd.nextBoolean();
+
+			assertEquals(expected.subMap(from, fromInclusive, to, toInclusive).keySet().toString(),
+					keysOf(map.subMap(from, fromInclusive, to, toInclusive)));
+			assertEquals(expected.subMap(from, fromInclusive, to, toInclusive).descendingKeySet().toString(),
+					keysOf(map.descendingSubMap(from, fromInclusive, to, toInclusive)));
+			assertEquals(expected.ceilingKey(from), keyOf(map.ceilingEntry(from)));
+			assertEquals(expected.floorKey(from), keyOf(map.floorEntry(from)));
+			assertEquals(expected.lowerKey(from), keyOf(map.lowerEntry(from)));
+			assertEquals(expected.higherKey(from), keyOf(map.higherEntry(from)));
+		}
+	}
+
+	private static String keysOf(Iterable<Entry<Integer, Integer>> entries) {
+		java.util.ArrayList<Integer> keys = new java.util.ArrayList<>();
+		for (Entry<Integer, Integer> entry : entries) {
+			keys.add(entry.getKey());
+		}
+		return keys.toString();
+	}
+
+	private static Integer keyOf(Entry<Integer, Integer> entry) {
+		return (entry == null) ? null : entry.getKey();
+	}
+
 }
@@ -98,6 +98,17 @@ public class UnsortedTableMap<K, V> extends AbstractMap<K, V> {
         return toRemove;
     }
 
+    /**
+     * Returns the entry at index i of the underlying table, allowing a container
+     * of buckets to walk the entries in place without creating an iterator.
+     *
+     * @param i an index between 0 and size() - 1
+     * @return the entry stored at index i
+     */
+    protected Entry<K, V> entryAt(int i) {
+        return table.get(i);
+    }
+
     // ---------------- nested EntryIterator class ----------------
     private class EntryIterator implements Iterator<Entry<K, V>> {
         private int j = 0;
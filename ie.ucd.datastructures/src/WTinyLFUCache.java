@@ -0,0 +1,422 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A bounded map using the W-TinyLFU policy, which resists the cache pollution
+ * that scans cause in a plain LRUCache.
+ * <p>
+ * New entries enter a small window LRU holding about 1% of the capacity. An
+ * entry pushed out of the window becomes a candidate for the main space, a
+ * segmented LRU split into a probation segment and a protected segment (80% of
+ * the main space). When the main space is full, the candidate is admitted only
+ * if a CountMinSketch of recent accesses rates it as more popular than the
+ * entry probation would evict; otherwise the candidate itself is evicted. An
+ * entry hit while in probation is promoted to the protected segment, whose
+ * overflow is demoted back to probation. A scan of keys that are each used
+ * once therefore churns through the window without displacing the frequently
+ * used entries of the main space.
+ * <p>
+ * As in LRUCache, each segment is a sentinel-bounded doubly linked list of
+ * entries indexed by a ChainHashMap, so every operation takes O(1) time.
+ */
+public class WTinyLFUCache<K, V> extends AbstractMap<K, V> {
+
+    // segment an entry belongs to
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    // ---------------- nested Node class ----------------
+    /**
+     * Node of a segment list, which is also the entry stored in the cache.
+     */
+    protected static class Node<K, V> extends MapEntry<K, V> {
+        private int segment; // WINDOW, PROBATION or PROTECTED
+        private Node<K, V> next; // next less recently used node
+        private Node<K, V> last; // next more recently used node
+
+        public Node(K key, V value) {
+            super(key, value);
+        }
+    } // ----------- end of nested Node class -----------
+
+    // ---------------- nested Segment class ----------------
+    /**
+     * A recency-ordered list of nodes between header and trailer sentinels.
+     */
+    private static class Segment<K, V> {
+        private final Node<K, V> header = new Node<>(null, null); // most recently used side
+        private final Node<K, V> trailer = new Node<>(null, null); // least recently used side
+        private int size = 0;
+
+        Segment() {
+            header.next = trailer;
+            trailer.last = header;
+        }
+
+        /** Inserts node as the most recently used one. */
+        void addFirst(Node<K, V> node) {
+            node.last = header;
+            node.next = header.next;
+            header.next.last = node;
+            header.next = node;
+            size++;
+        }
+
+        /** Detaches node from this list. */
+        void remove(Node<K, V> node) {
+            node.last.next = node.next;
+            node.next.last = node.last;
+            node.next = null;
+            node.last = null;
+            size--;
+        }
+
+        /** Returns the least recently used node, or null if empty. */
+        Node<K, V> last() {
+            return (size == 0) ? null : trailer.last;
+        }
+    } // ----------- end of nested Segment class -----------
+
+    private final ChainHashMap<K, Node<K, V>> index; // key to list node
+    private final CountMinSketch<K> sketch; // recent access frequencies
+    private final Segment<K, V> window = new Segment<>();
+    private final Segment<K, V> probation = new Segment<>();
+    private final Segment<K, V> protectedSegment = new Segment<>();
+
+    private final int maximumSize;
+    private final int maxWindow; // capacity of the window
+    private final int maxMain; // capacity of probation and protected together
+    private final int maxProtected; // capacity of the protected segment
+    private EvictionListener<K, V> listener; // may be null
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Creates a cache holding at most the given number of entries.
+     *
+     * @param maximumSize the maximum number of entries
+     * @throws IllegalArgumentException if maximumSize is not positive
+     */
+    public WTinyLFUCache(int maximumSize) throws IllegalArgumentException {
+
+        if (maximumSize <= 0) {
+
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+
+        this.maximumSize = maximumSize;
+        maxWindow = Math.max(1, maximumSize / 100);
+        maxMain = maximumSize - maxWindow;
+        maxProtected = maxMain * 4 / 5;
+        index = new ChainHashMap<>(2 * maximumSize + 1);
+        sketch = new CountMinSketch<>(maximumSize);
+    }
+
+    /**
+     * Sets the listener to be notified of every eviction, replacing any previous
+     * one.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     *
+     * @return number of entries in the cache
+     */
+    @Override
+    public int size() {
+
+        return index.size();
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists. Every call, hit or miss, counts towards the key's frequency.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) {
+
+        sketch.increment(key);
+        Node<K, V> node = index.get(key);
+
+        if (node == null) {
+
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        onHit(node);
+        return node.getValue();
+    }
+
+    /**
+     * Associates the given value with the given key. A new entry enters the
+     * window, which may cause the entry leaving the window or the least
+     * recently used entry on probation to be evicted.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @Override
+    public V put(K key, V value) {
+
+        sketch.increment(key);
+        Node<K, V> node = index.get(key);
+
+        if (node != null) {
+
+            V answer = node.setValue(value);
+            onHit(node);
+            return answer;
+        }
+
+        node = new Node<>(key, value);
+        node.segment = WINDOW;
+        index.put(key, node);
+        window.addFirst(node);
+
+        if (window.size > maxWindow) {
+
+            admit(window.last());
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. The eviction listener is not notified.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(K key) {
+
+        Node<K, V> node = index.remove(key);
+
+        if (node == null) {
+
+            return null;
+        }
+
+        segmentOf(node).remove(node);
+        return node.getValue();
+    }
+
+    /** Returns the list holding node. */
+    private Segment<K, V> segmentOf(Node<K, V> node) {
+
+        switch (node.segment) {
+        case WINDOW:
+            return window;
+        case PROBATION:
+            return probation;
+        default:
+            return protectedSegment;
+        }
+    }
+
+    /** Updates the recency of node after an access. */
+    private void onHit(Node<K, V> node) {
+
+        segmentOf(node).remove(node);
+
+        if (node.segment == PROBATION) {
+
+            node.segment = PROTECTED;
+            protectedSegment.addFirst(node);
+
+            if (protectedSegment.size > maxProtected) { // demote to make room
+
+                Node<K, V> demoted = protectedSegment.last();
+                protectedSegment.remove(demoted);
+                demoted.segment = PROBATION;
+                probation.addFirst(demoted);
+            }
+        } else {
+
+            segmentOf(node).addFirst(node);
+        }
+    }
+
+    /**
+     * Moves the candidate leaving the window into probation, then, if the main
+     * space is over capacity, evicts whichever of the candidate and the probation
+     * victim is less frequently used.
+     */
+    private void admit(Node<K, V> candidate) {
+
+        window.remove(candidate);
+        candidate.segment = PROBATION;
+        probation.addFirst(candidate);
+
+        if (probation.size + protectedSegment.size <= maxMain) {
+
+            return;
+        }
+
+        Node<K, V> victim = probation.last();
+
+        if (victim == candidate) {
+
+            victim = (protectedSegment.size > 0) ? protectedSegment.last() : candidate;
+        }
+
+        if (victim != candidate && sketch.frequency(candidate.getKey()) <= sketch.frequency(victim.getKey())) {
+
+            victim = candidate; // the candidate is not popular enough to be admitted
+        }
+
+        evict(victim);
+    }
+
+    /** Removes node from the cache and notifies the listener. */
+    private void evict(Node<K, V> node) {
+
+        segmentOf(node).remove(node);
+        index.remove(node.getKey());
+        evictionCount++;
+
+        if (listener != null) {
+
+            listener.onEviction(node.getKey(), node.getValue());
+        }
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     *
+     * @return the capacity of the cache
+     */
+    public int capacity() {
+
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of get calls that found their key.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of get calls that did not find their key.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the bound.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+
+        return evictionCount;
+    }
+
+    /**
+     * Returns the fraction of get calls that were hits, or 0 if there were none.
+     *
+     * @return the hit rate
+     */
+    public double hitRate() {
+
+        long requests = hitCount + missCount;
+        return (requests == 0) ? 0 : (double) hitCount / requests;
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private int s = WINDOW; // segment being walked
+        private Node<K, V> cursor = window.header.next;
+
+        private Segment<K, V> segment() {
+            return (s == WINDOW) ? window : (s == PROBATION) ? probation : protectedSegment;
+        }
+
+        public boolean hasNext() {
+            while (cursor == segment().trailer && s < PROTECTED) {
+                s++;
+                cursor = segment().header.next;
+            }
+            return cursor != segment().trailer;
+        }
+
+        public Entry<K, V> next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more entries");
+            }
+            Node<K, V> answer = cursor;
+            cursor = cursor.next;
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    /**
+     * Returns an iterable collection of all key-value entries of the cache: the
+     * window, then probation, then the protected segment, each from the most to
+     * the least recently used. Iterating does not affect recency.
+     *
+     * @return iterable collection of the cache's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+
+        return EntryIterator::new;
+    }
+
+    public String toString() {
+
+        return keySet().toString();
+    }
+
+    public static void main(String[] args) {
+
+        WTinyLFUCache<Integer, String> cache = new WTinyLFUCache<>(4);
+
+        for (int round = 0; round < 3; round++) {
+
+            for (int i = 0; i < 3; i++) {
+
+                if (cache.get(i) == null) {
+
+                    cache.put(i, Integer.toString(i));
+                }
+            }
+        }
+
+        for (int i = 100; i < 110; i++) { // a scan
+
+            cache.put(i, Integer.toString(i));
+        }
+
+        System.out.println("cache: " + cache);
+        System.out.println("hits: " + cache.getHitCount() + ", misses: " + cache.getMissCount());
+    }
+
+}
@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WTinyLFUCacheTest {
+
+	@Test
+	void testGetPut() {
+		WTinyLFUCache<Integer, String> cache = new WTinyLFUCache<Integer, String>(100);
+
+		for (int i = 0; i < 50; i++) {
+			cache.put(i, Integer.toString(i));
+		}
+		assertEquals(50, cache.size());
+		assertEquals("7", cache.get(7));
+		assertEquals("7", cache.put(7, "seven"));
+		assertEquals("seven", cache.get(7));
+		assertNull(cache.get(-1));
+		assertEquals("seven", cache.remove(7));
+		assertEquals(49, cache.size());
+	}
+
+	@Test
+	void testBounded() {
+		WTinyLFUCache<Integer, Integer> cache = new WTinyLFUCache<Integer, Integer>(50);
+		ArrayList<Integer> evicted = new ArrayList<>();
+		cache.setEvictionListener((k, v) -> evicted.add(k));
+
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, i);
+			assertTrue(cache.size() <= 50);
+		}
+		assertEquals(50, cache.size());
+		assertEquals(950, cache.getEvictionCount());
+		assertEquals(950, evicted.size());
+
+		int count = 0;
+		for (Entry<Integer, Integer> entry : cache.entrySet()) {
+			assertEquals(entry.getKey(), entry.getValue());
+			count++;
+		}
+		assertEquals(50, count);
+	}
+
+	@Test
+	void testScanResistance() {
+		long[] trace = CacheBenchmark.scanPollutedTrace(200000, 1000, 2000, 2000, 7);
+		double lru = CacheBenchmark.replay(new LRUCache<Long, Long>(1000), trace);
+		double tinyLfu = CacheBenchmark.replay(new WTinyLFUCache<Long, Long>(1000), trace);
+
+		assertTrue(tinyLfu > 1.2 * lru, "LRU " + lru + ", W-TinyLFU " + tinyLfu);
+	}
+
+	@Test
+	void testInvalidCapacity() {
+		assertThrows(IllegalArgumentException.class, () -> new WTinyLFUCache<Integer, Integer>(0));
+	}
+
+}
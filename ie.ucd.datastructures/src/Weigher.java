@@ -0,0 +1,16 @@
+/**
+ * Interface for computing the weight of a cache entry, so that a cache can be
+ * bounded by the total weight of its entries rather than by their number.
+ */
+public interface Weigher<K, V> {
+
+    /**
+     * Returns the weight of the entry with the given key and value. The weight of
+     * an entry is computed when it is inserted or its value is replaced.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry
+     * @return a non-negative weight
+     */
+    int weigh(K key, V value);
+}